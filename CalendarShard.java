@@ -0,0 +1,118 @@
+package eventorganizer;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One partition of a ShardedCalendar, in this JVM or another
+ * Each event is added with the sequence number the router gave its add,
+ * so the lists of different shards can be merged in the order the
+ * events were added to the whole calendar
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public interface CalendarShard {
+    /**
+     * The orders the events of a shard can be listed in, one per report;
+     * events that tie on an order are listed by sequence number
+     */
+    enum Order {
+        INSERTION(Comparator.comparingInt(event -> 0)),
+        DATE(Comparator.naturalOrder()),
+        CAMPUS(Comparator.comparing(Event::getLocation)),
+        DEPARTMENT(Comparator.comparing(Event::getDepartment));
+
+        private final Comparator<Event> events; // the order before ties
+
+        /**
+         * Creates an order
+         * @param events compares events on the order, before ties
+         */
+        Order(Comparator<Event> events) {
+            this.events = events;
+        }
+
+        /**
+         * Returns the order of entries, by event and then sequence number
+         * @return the comparator
+         */
+        public Comparator<Entry> entries() {
+            return Comparator.comparing(Entry::getEvent, events)
+                    .thenComparingLong(Entry::getSequence);
+        }
+    }
+
+    /**
+     * An event of a shard with the sequence number of its add
+     */
+    final class Entry {
+        private final Event event; // the event
+        private final long sequence; // number of its add, across shards
+
+        /**
+         * Creates an entry
+         * @param event the event
+         * @param sequence the sequence number of its add
+         */
+        public Entry(Event event, long sequence) {
+            this.event = event;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Returns the event of this entry
+         * @return event
+         */
+        public Event getEvent() {
+            return event;
+        }
+
+        /**
+         * Returns the sequence number the event was added with
+         * @return sequence number
+         */
+        public long getSequence() {
+            return sequence;
+        }
+    }
+
+    /**
+     * Adds an event unless one with the same date, timeslot, and
+     * location is already in the shard
+     * @param  event the event to be added
+     * @param  sequence the sequence number of the add, greater than that
+     *                  of every earlier add to the shard
+     * @return true if event is successfully added,
+     *         false if the event is already in the shard
+     */
+    boolean add(Event event, long sequence);
+
+    /**
+     * Deletes the specified event from the shard if it exists
+     * @param  event the event to be deleted
+     * @return true if event is successfully deleted,
+     *         false if event is not found in the shard
+     */
+    boolean remove(Event event);
+
+    /**
+     * Checks whether an event exists in the shard
+     * @param  event the event to be searched
+     * @return true if shard contains specified event, false if not
+     */
+    boolean contains(Event event);
+
+    /**
+     * Lists the events of the shard in the order of one report; events
+     * that tie on the order are listed by sequence number
+     * @param order the order
+     * @return the events with their sequence numbers
+     */
+    List<Entry> eventsInOrder(Order order);
+
+    /**
+     * Returns the highest sequence number an event was ever added to the
+     * shard with, so a new router can number its adds after it
+     * @return the highest sequence number, -1 if nothing was ever added
+     */
+    long lastSequence();
+}
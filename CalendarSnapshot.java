@@ -0,0 +1,391 @@
+package eventorganizer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Saves an EventCalendar to a compact binary file and loads it back
+ * through a memory-mapped buffer
+ * The file holds a header, a table of the distinct emails, and one
+ * fixed-size record per event in insertion order: packed date, timeslot,
+ * location, and department ordinals, duration, and email index
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class CalendarSnapshot {
+    private static final int MAGIC = 0x45564331; // "EVC1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+    private static final int RECORD_SIZE = Integer.BYTES + 3 * Byte.BYTES
+            + Short.BYTES + Integer.BYTES;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Department[] DEPARTMENTS = Department.values();
+
+    private CalendarSnapshot() {
+    }
+
+    /**
+     * Writes the calendar to a file, replacing the file only once the
+     * new snapshot is completely written
+     * @param calendar the calendar to save
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(EventCalendar calendar, Path path)
+            throws IOException {
+        HashMap<String, Integer> emailIndex = new HashMap<>();
+        List<String> emails = new ArrayList<>();
+        for (Iterator<Event> it = calendar.events().iterator();
+             it.hasNext(); ) {
+            String email = it.next().getContact().getEmail();
+            if (emailIndex.putIfAbsent(email, emails.size()) == null) {
+                emails.add(email);
+            }
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION)
+                    .putInt(emails.size()).putInt(calendar.size());
+            for (String email: emails) {
+                byte[] bytes = email.getBytes(StandardCharsets.UTF_8);
+                buffer = ensureRemaining(channel, buffer,
+                        Integer.BYTES + bytes.length);
+                buffer.putInt(bytes.length).put(bytes);
+            }
+            for (Iterator<Event> it = calendar.events().iterator();
+                 it.hasNext(); ) {
+                Event event = it.next();
+                buffer = ensureRemaining(channel, buffer, RECORD_SIZE);
+                buffer.putInt(event.getDate().getPacked())
+                        .put((byte) event.getStartTime().ordinal())
+                        .put((byte) event.getLocation().ordinal())
+                        .put((byte) event.getDepartment().ordinal())
+                        .putShort((short) event.getDuration())
+                        .putInt(emailIndex.get(
+                                event.getContact().getEmail()));
+            }
+            write(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a calendar from a file written by save()
+     * Contacts are interned in the shared ContactRegistry
+     * @param path the file to read
+     * @return the calendar, with events in their saved order
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static EventCalendar load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not an event calendar snapshot: "
+                        + path);
+            }
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, size);
+            try {
+                return read(buffer);
+            }
+            catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IOException("Corrupt event calendar snapshot: "
+                        + path, e);
+            }
+        }
+    }
+
+    /**
+     * Reads a calendar from a buffer holding a snapshot
+     * The counts in the header are checked against the size of the buffer
+     * before anything is allocated for them
+     * @param buffer the snapshot
+     * @return the calendar
+     * @throws IOException if the buffer is not a snapshot or is corrupt
+     */
+    private static EventCalendar read(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not an event calendar snapshot");
+        }
+        int numEmails = buffer.getInt();
+        int numEvents = buffer.getInt();
+        // each email takes at least its length; check before allocating
+        if (numEmails < 0 || numEvents < 0
+                || (long) numEmails * Integer.BYTES
+                + (long) numEvents * RECORD_SIZE > buffer.remaining()) {
+            throw new IOException("Corrupt event calendar snapshot: "
+                    + numEmails + " emails and " + numEvents
+                    + " events cannot fit in the file");
+        }
+
+        String[] emails = new String[numEmails];
+        for (int i = 0; i < numEmails; ++i) {
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Corrupt event calendar snapshot: "
+                        + "email " + i + " runs past the end of the file");
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            emails[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        ContactRegistry registry = ContactRegistry.shared();
+        EventCalendar calendar = new EventCalendar(numEvents);
+        Date date = null;
+        for (int i = 0; i < numEvents; ++i) {
+            int packed = buffer.getInt();
+            if (date == null || date.getPacked() != packed) {
+                date = Date.fromPacked(packed);
+            }
+            Timeslot timeslot = TIMESLOTS[buffer.get()];
+            Location location = LOCATIONS[buffer.get()];
+            int department = buffer.get();
+            int duration = buffer.getShort();
+            int email = buffer.getInt();
+            Contact contact = registry.intern(DEPARTMENTS[department],
+                    emails[email]);
+            calendar.add(new Event(date, timeslot, location, contact,
+                    duration));
+        }
+        return calendar;
+    }
+
+    /**
+     * Makes room in the buffer, writing it out first if needed
+     * @param channel the file being written
+     * @param buffer the buffer being filled
+     * @param needed the number of bytes about to be put
+     * @return a buffer with at least that many bytes remaining
+     * @throws IOException if the file cannot be written
+     */
+    private static ByteBuffer ensureRemaining(FileChannel channel,
+                                              ByteBuffer buffer, int needed)
+            throws IOException {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        write(channel, buffer);
+        return (buffer.capacity() >= needed) ? buffer
+                : ByteBuffer.allocate(needed);
+    }
+
+    /**
+     * Writes the contents of the buffer and clears it
+     * @param channel the file being written
+     * @param buffer the buffer to write
+     * @throws IOException if the file cannot be written
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Test case #1
+     * Tests if a saved calendar loads back with the same events in the
+     * same order
+     * @throws IOException if the snapshot cannot be written or read
+     */
+    private static void testRoundTrip() throws IOException {
+        System.out.println("** Test case #1: a saved calendar loads back "
+                + "with every report unchanged");
+        EventCalendar calendar = testCalendar();
+        Path path = Files.createTempFile("snapshot", ".evc");
+        try {
+            save(calendar, path);
+            boolean expectedOutput = true, actualOutput =
+                    render(load(path)).equals(render(calendar));
+            Testbed.printResult(calendar.size() + " events", expectedOutput,
+                    actualOutput);
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Test case #2
+     * Tests if an empty calendar loads back empty
+     * @throws IOException if the snapshot cannot be written or read
+     */
+    private static void testEmptyRoundTrip() throws IOException {
+        System.out.println("** Test case #2: an empty calendar loads back "
+                + "empty");
+        Path path = Files.createTempFile("snapshot", ".evc");
+        try {
+            save(new EventCalendar(), path);
+            boolean expectedOutput = true, actualOutput =
+                    load(path).size() == 0;
+            Testbed.printResult("0 events", expectedOutput, actualOutput);
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Test case #3
+     * Tests if a negative event count is reported as a corrupt snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    private static void testNegativeCount() throws IOException {
+        System.out.println("** Test case #3: a negative event count is "
+                + "an IOException");
+        testCorruptCount(-1);
+    }
+
+    /**
+     * Test case #4
+     * Tests if an event count larger than the file can hold is reported
+     * as a corrupt snapshot before anything is allocated for it
+     * @throws IOException if the snapshot cannot be written
+     */
+    private static void testOversizedCount() throws IOException {
+        System.out.println("** Test case #4: an event count past the end "
+                + "of the file is an IOException");
+        testCorruptCount(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Test case #5
+     * Tests if a snapshot cut off in the middle of its records is
+     * reported as a corrupt snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    private static void testTruncatedFile() throws IOException {
+        System.out.println("** Test case #5: a snapshot cut off in its "
+                + "records is an IOException");
+        Path path = Files.createTempFile("snapshot", ".evc");
+        try {
+            save(testCalendar(), path);
+            byte[] bytes = Files.readAllBytes(path);
+            Files.write(path, Arrays.copyOf(bytes,
+                    bytes.length - RECORD_SIZE / 2));
+            Testbed.printResult(bytes.length - RECORD_SIZE / 2 + " of "
+                    + bytes.length + " bytes", true, isRejected(path));
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Saves a calendar, replaces its event count, and checks that loading
+     * it fails with an IOException
+     * @param count the event count written into the header
+     * @throws IOException if the snapshot cannot be written
+     */
+    private static void testCorruptCount(int count) throws IOException {
+        Path path = Files.createTempFile("snapshot", ".evc");
+        try {
+            save(testCalendar(), path);
+            byte[] bytes = Files.readAllBytes(path);
+            ByteBuffer.wrap(bytes).putInt(HEADER_SIZE - Integer.BYTES,
+                    count);
+            Files.write(path, bytes);
+            Testbed.printResult("event count " + count, true, isRejected(path));
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Checks whether loading a file fails with an IOException
+     * @param path the file
+     * @return true if load() threw an IOException, false if it loaded or
+     *         failed with another exception
+     */
+    private static boolean isRejected(Path path) {
+        try {
+            load(path);
+            return false;
+        }
+        catch (IOException e) {
+            return true;
+        }
+        catch (RuntimeException e) {
+            System.out.println("Unexpected " + e);
+            return false;
+        }
+    }
+
+    /**
+     * Makes a calendar with events in several departments, added out of
+     * date order
+     * @return the calendar
+     */
+    private static EventCalendar testCalendar() {
+        EventCalendar calendar = new EventCalendar();
+        calendar.add(new Event(new Date(2024, 3, 12), Timeslot.EVENING,
+                Location.HLL114, new Contact(Department.CS,
+                "cs@rutgers.edu"), 90));
+        calendar.add(new Event(new Date(2024, 1, 30), Timeslot.MORNING,
+                Location.ARC103, new Contact(Department.MATH,
+                "math@rutgers.edu"), 30));
+        calendar.add(new Event(new Date(2024, 2, 2), Timeslot.AFTERNOON,
+                Location.TIL232, new Contact(Department.EE,
+                "ee@rutgers.edu"), 120));
+        calendar.add(new Event(new Date(2024, 1, 30), Timeslot.MORNING,
+                Location.MU302, new Contact(Department.CS,
+                "cs@rutgers.edu"), 60));
+        return calendar;
+    }
+
+    /**
+     * Writes every report of a calendar to a string
+     * @param calendar the calendar
+     * @return the reports
+     */
+    private static String render(EventCalendar calendar) {
+        StringWriter text = new StringWriter();
+        ReportWriter out = new ReportWriter(text);
+        calendar.print(out);
+        calendar.printByDate(out);
+        calendar.printByCampus(out);
+        calendar.printByDepartment(out);
+        return text.toString();
+    }
+
+    /**
+     * Testbed main used as the driver to test save() and load()
+     * @param args command line arguments
+     * @throws IOException if a test snapshot cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        testRoundTrip();
+        testEmptyRoundTrip();
+        testNegativeCount();
+        testOversizedCount();
+        testTruncatedFile();
+    }
+}
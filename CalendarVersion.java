@@ -0,0 +1,387 @@
+package eventorganizer;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * An immutable view of the events of a VersionedCalendar as they were at
+ * one version
+ * The events are held in a persistent AVL tree keyed by date, timeslot,
+ * and location: each change copies only the O(log n) nodes on the path
+ * it touches and shares the rest with the previous version, so opening
+ * a version costs nothing and retaining many costs little
+ * A version never changes, so it can be read by any number of threads
+ * while the calendar goes on changing
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public final class CalendarVersion {
+    private final long version; // number of changes before this version
+    private final Instant timestamp; // when the version was made
+    private final Node root; // the events, or null if there are none
+    private final int size; // number of events
+    private final long nextSequence; // sequence of the next event added
+
+    private static final int DATE_SHIFT = 16;
+    private static final int TIMESLOT_SHIFT = 8;
+
+    // the orders of the reports, each breaking ties by insertion order
+    private static final Comparator<Node> BY_SEQUENCE =
+            Comparator.comparingLong(node -> node.sequence);
+    private static final Comparator<Node> BY_DATE = Comparator
+            .comparingLong((Node node) -> node.key >>> TIMESLOT_SHIFT)
+            .thenComparing(BY_SEQUENCE);
+    private static final Comparator<Node> BY_LOCATION = Comparator
+            .comparingInt((Node node) -> node.event.getLocation().ordinal())
+            .thenComparing(BY_SEQUENCE);
+    private static final Comparator<Node> BY_DEPARTMENT = Comparator
+            .comparingInt((Node node) -> node.event.getDepartment()
+                    .ordinal())
+            .thenComparing(BY_SEQUENCE);
+
+    /**
+     * A node of the tree; an event and the order it was added in
+     */
+    private static final class Node {
+        private final long key; // date, timeslot, and location of event
+        private final Event event; // the event
+        private final long sequence; // order the event was added in
+        private final Node left; // events with smaller keys
+        private final Node right; // events with larger keys
+        private final int height; // height of the subtree
+
+        /**
+         * Creates a node
+         * @param key the key of the event
+         * @param event the event
+         * @param sequence the order the event was added in
+         * @param left the left subtree
+         * @param right the right subtree
+         */
+        private Node(long key, Event event, long sequence, Node left,
+                     Node right) {
+            this.key = key;
+            this.event = event;
+            this.sequence = sequence;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+
+        /**
+         * Creates a copy of this node with other subtrees
+         * @param left the left subtree
+         * @param right the right subtree
+         * @return the copy
+         */
+        private Node with(Node left, Node right) {
+            return new Node(key, event, sequence, left, right);
+        }
+    }
+
+    /**
+     * Creates a version
+     * @param version the number of changes before this version
+     * @param timestamp when the version was made
+     * @param root the tree of events
+     * @param size the number of events
+     * @param nextSequence the sequence of the next event added
+     */
+    private CalendarVersion(long version, Instant timestamp, Node root,
+                            int size, long nextSequence) {
+        this.version = version;
+        this.timestamp = timestamp;
+        this.root = root;
+        this.size = size;
+        this.nextSequence = nextSequence;
+    }
+
+    /**
+     * Returns the version of an empty calendar
+     * @param timestamp when the calendar was created
+     * @return version 0
+     */
+    static CalendarVersion empty(Instant timestamp) {
+        return new CalendarVersion(0, timestamp, null, 0, 0);
+    }
+
+    /**
+     * Returns the next version, with an event added
+     * @param event an event whose date, timeslot, and location are free
+     *              in this version
+     * @param time when the change was made
+     * @return the next version
+     */
+    CalendarVersion with(Event event, Instant time) {
+        Node added = insert(root, key(event), event, nextSequence);
+        return new CalendarVersion(version + 1, time, added, size + 1,
+                nextSequence + 1);
+    }
+
+    /**
+     * Returns the next version, with an event removed
+     * @param event an event whose date, timeslot, and location are booked
+     *              in this version
+     * @param time when the change was made
+     * @return the next version
+     */
+    CalendarVersion without(Event event, Instant time) {
+        Node removed = delete(root, key(event));
+        return new CalendarVersion(version + 1, time, removed, size - 1,
+                nextSequence);
+    }
+
+    /**
+     * Returns the version number, the number of changes made to the
+     * calendar before this version
+     * @return version number
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns when the change that made this version was made
+     * @return timestamp
+     */
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the number of events
+     * @return number of events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether an event with the same date, timeslot, and location
+     * is in this version
+     * @param event the event to be searched
+     * @return true if the version contains the event, false if not
+     */
+    public boolean contains(Event event) {
+        long key = key(event);
+        Node node = root;
+        while (node != null && node.key != key) {
+            node = (key < node.key) ? node.left : node.right;
+        }
+        return node != null;
+    }
+
+    /**
+     * Returns a new calendar holding the events of this version, added
+     * in the order they were added to the versioned calendar
+     * @return the calendar
+     */
+    public EventCalendar toCalendar() {
+        EventCalendar calendar = new EventCalendar(size);
+        for (Node node: sorted(BY_SEQUENCE)) {
+            calendar.add(node.event);
+        }
+        return calendar;
+    }
+
+    /**
+     * Writes the events in insertion order to a report
+     * @param out the report the events are written to
+     */
+    public void print(ReportWriter out) {
+        printNodes(out, "* Event calendar *", BY_SEQUENCE);
+    }
+
+    /**
+     * Writes the events ordered by date and timeslot to a report
+     * @param out the report the events are written to
+     */
+    public void printByDate(ReportWriter out) {
+        printNodes(out, "* Event calendar by event date and start time *",
+                BY_DATE);
+    }
+
+    /**
+     * Writes the events ordered by campus and building/room to a report
+     * @param out the report the events are written to
+     */
+    public void printByCampus(ReportWriter out) {
+        printNodes(out, "* Event calendar by campus and building *",
+                BY_LOCATION);
+    }
+
+    /**
+     * Writes the events ordered by department to a report
+     * @param out the report the events are written to
+     */
+    public void printByDepartment(ReportWriter out) {
+        printNodes(out, "* Event calendar by department *", BY_DEPARTMENT);
+    }
+
+    /**
+     * Helper method used to write the events in the specified order,
+     * in the same form as EventCalendar
+     * @param out the report the events are written to
+     * @param header the line written before the events
+     * @param order the order of the nodes
+     */
+    private void printNodes(ReportWriter out, String header,
+                            Comparator<Node> order) {
+        if (size == 0) {
+            out.println("Event calendar is empty!");
+            out.flush();
+            return;
+        }
+        out.println(header);
+        out.printlnAll(Arrays.stream(sorted(order))
+                .map(node -> node.event).iterator());
+        out.println("* end of event calendar *");
+        out.flush();
+    }
+
+    /**
+     * Walks the tree into an array and sorts it; as the walk yields the
+     * nodes in key order, an order that mostly follows the key sorts in
+     * close to linear time
+     * @param order the order of the nodes
+     * @return the nodes in order
+     */
+    private Node[] sorted(Comparator<Node> order) {
+        Node[] nodes = new Node[size];
+        collect(root, nodes, 0);
+        Arrays.sort(nodes, order);
+        return nodes;
+    }
+
+    /**
+     * Returns the key of an event, ordered by date, timeslot, and location
+     * @param event the event
+     * @return the key
+     */
+    private static long key(Event event) {
+        return ((long) event.getDate().getPacked() << DATE_SHIFT)
+                | (event.getStartTime().ordinal() << TIMESLOT_SHIFT)
+                | event.getLocation().ordinal();
+    }
+
+    /**
+     * Returns the height of a subtree
+     * @param node the root of the subtree, or null
+     * @return the height, 0 for an empty subtree
+     */
+    private static int height(Node node) {
+        return (node == null) ? 0 : node.height;
+    }
+
+    /**
+     * Adds an event to a subtree, copying the nodes on its path
+     * @param node the root of the subtree, or null
+     * @param key the key of the event, not already in the subtree
+     * @param event the event
+     * @param sequence the order the event was added in
+     * @return the root of the new subtree
+     */
+    private static Node insert(Node node, long key, Event event,
+                               long sequence) {
+        if (node == null) {
+            return new Node(key, event, sequence, null, null);
+        }
+        if (key < node.key) {
+            return balance(node.with(insert(node.left, key, event, sequence),
+                    node.right));
+        }
+        return balance(node.with(node.left,
+                insert(node.right, key, event, sequence)));
+    }
+
+    /**
+     * Removes an event from a subtree, copying the nodes on its path
+     * @param node the root of the subtree, or null
+     * @param key the key of the event
+     * @return the root of the new subtree
+     */
+    private static Node delete(Node node, long key) {
+        if (node == null) {
+            return null;
+        }
+        if (key < node.key) {
+            return balance(node.with(delete(node.left, key), node.right));
+        }
+        if (key > node.key) {
+            return balance(node.with(node.left, delete(node.right, key)));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node next = node.right;
+        while (next.left != null) {
+            next = next.left;
+        }
+        return balance(new Node(next.key, next.event, next.sequence,
+                node.left, delete(node.right, next.key)));
+    }
+
+    /**
+     * Restores the AVL balance of a node whose subtrees differ in height
+     * by at most two
+     * @param node the node
+     * @return the root of the balanced subtree
+     */
+    private static Node balance(Node node) {
+        int difference = height(node.left) - height(node.right);
+        if (difference > 1) {
+            Node left = node.left;
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left);
+            }
+            return rotateRight(node.with(left, node.right));
+        }
+        if (difference < -1) {
+            Node right = node.right;
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right);
+            }
+            return rotateLeft(node.with(node.left, right));
+        }
+        return node;
+    }
+
+    /**
+     * Rotates a subtree so that its left child becomes its root
+     * @param node the root of the subtree
+     * @return the new root
+     */
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        return left.with(left.left, node.with(left.right, node.right));
+    }
+
+    /**
+     * Rotates a subtree so that its right child becomes its root
+     * @param node the root of the subtree
+     * @return the new root
+     */
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        return right.with(node.with(node.left, right.left), right.right);
+    }
+
+    /**
+     * Copies the nodes of a subtree into an array in key order
+     * @param node the root of the subtree, or null
+     * @param nodes the array
+     * @param index where the first node goes
+     * @return the index after the last node copied
+     */
+    private static int collect(Node node, Node[] nodes, int index) {
+        if (node == null) {
+            return index;
+        }
+        index = collect(node.left, nodes, index);
+        nodes[index++] = node;
+        return collect(node.right, nodes, index);
+    }
+}
@@ -0,0 +1,706 @@
+package eventorganizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Represents a list of events stored column by column in primitive
+ * arrays instead of as one object graph per event
+ * Each event is a row: its packed date, its timeslot, location, and
+ * department ordinals, its duration, and the index of its contact in a
+ * pool of distinct contacts; an open-addressed table maps each booked
+ * (date, timeslot, location) cell to its row
+ * Rows are read through flyweight views that hold only a row number:
+ * reports write each row through one reusable Event view that never
+ * leaves this class, and forEach() hands out one reusable Row view; a
+ * view only makes a new Date when a row's packed date differs from the
+ * row read before it, and takes its Contact from the pool
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class ColumnarEventCalendar implements EventStore {
+    private int[] dates; // packed date of each row
+    private byte[] timeslots; // timeslot ordinal of each row
+    private byte[] locations; // location ordinal of each row, or REMOVED
+    private byte[] departments; // department ordinal of each row
+    private short[] durations; // duration of each row, in minutes
+    private int[] contacts; // index of each row's contact in contactPool
+    private int numEvents; // current number of events
+    private int numRows; // rows in use, including removed rows
+
+    private Contact[] contactPool; // the distinct contacts, by index
+    private int numContacts; // number of contacts in the pool
+    // email -> pool index of its contact in each department, by ordinal
+    private HashMap<String, int[]> contactIndex;
+
+    private int[] cells; // booked cells, open-addressed, or FREE
+    private int[] cellRows; // the row of each cell in cells
+    private int numCells; // number of cells in the table
+
+    private final Event view = new Event(null, null, null); // current row
+    private final Row cursor = new Row(); // view handed out by forEach()
+    private Date lastDate; // date of the row last read, reused if equal
+
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Department[] DEPARTMENTS = Department.values();
+    private static final int SLOTS_PER_DAY = TIMESLOTS.length
+            * LOCATIONS.length;
+
+    private static final byte REMOVED = -1;
+    private static final int FREE = Integer.MIN_VALUE;
+    private static final int NOT_FOUND = -1;
+    private static final int INITIAL_CAPACITY = 4;
+    private static final int INITIAL_CONTACTS = 16;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int EMPTY = 0;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int ROW_BITS = 32;
+    private static final long ROW_MASK = 0xFFFFFFFFL;
+    private static final int TEST_EVENTS = 6;
+
+    /**
+     * Creates an empty calendar with an initial capacity of 4
+     */
+    public ColumnarEventCalendar() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty calendar sized to hold the expected number of
+     * events without growing
+     * @param expectedEvents the number of events expected to be added
+     */
+    public ColumnarEventCalendar(int expectedEvents) {
+        int capacity = Math.max(expectedEvents, INITIAL_CAPACITY);
+        dates = new int[capacity];
+        timeslots = new byte[capacity];
+        locations = new byte[capacity];
+        departments = new byte[capacity];
+        durations = new short[capacity];
+        contacts = new int[capacity];
+        contactPool = new Contact[INITIAL_CONTACTS];
+        contactIndex = new HashMap<>();
+        cells = new int[Integer.highestOneBit(capacity) * 2 * GROWTH_FACTOR];
+        Arrays.fill(cells, FREE);
+        cellRows = new int[cells.length];
+    }
+
+    /**
+     * Adds an event at the end of the list unless its date, timeslot,
+     * and location are already booked
+     * @param  event the event to be added
+     * @return true if event is successfully added,
+     *         false if the event is already in the list
+     */
+    @Override
+    public boolean add(Event event) {
+        int cell = cell(event.getDate(), event.getStartTime(),
+                event.getLocation());
+        if (findCell(cell) != NOT_FOUND) {
+            return false;
+        }
+        ensureCapacity();
+        int row = numRows;
+        dates[row] = event.getDate().getPacked();
+        timeslots[row] = (byte) event.getStartTime().ordinal();
+        locations[row] = (byte) event.getLocation().ordinal();
+        departments[row] = (byte) event.getDepartment().ordinal();
+        durations[row] = (short) event.getDuration();
+        contacts[row] = intern(event.getContact());
+        putCell(cell, row);
+        ++numRows;
+        ++numEvents;
+        return true;
+    }
+
+    /**
+     * Deletes the specified event from the list if it exists
+     * The row is marked removed and reclaimed later, so no rows are
+     * shifted
+     * @param  event the event to be deleted
+     * @return true if event is successfully deleted,
+     *         false if event is not found in list
+     */
+    @Override
+    public boolean remove(Event event) {
+        int position = findCell(cell(event.getDate(), event.getStartTime(),
+                event.getLocation()));
+        if (position == NOT_FOUND) {
+            return false;
+        }
+        locations[cellRows[position]] = REMOVED;
+        deleteCell(position);
+        --numEvents;
+        while (numRows > EMPTY && locations[numRows - 1] == REMOVED) {
+            --numRows;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an event exists in the list
+     * @param  event the event to be searched
+     * @return true if list contains specified event, false if not
+     */
+    @Override
+    public boolean contains(Event event) {
+        return findCell(cell(event.getDate(), event.getStartTime(),
+                event.getLocation())) != NOT_FOUND;
+    }
+
+    /**
+     * Returns the number of events in the calendar
+     * @return number of events
+     */
+    public int size() {
+        return numEvents;
+    }
+
+    /**
+     * Passes each event to an action in insertion order, through one
+     * reusable Row view that is moved from row to row, so no object is
+     * made per event
+     * The view is only valid until the action returns; an action that
+     * keeps an event must copy it with Row.toEvent()
+     * @param action the action to be performed on each event
+     */
+    public void forEach(Consumer<Row> action) {
+        for (int index = 0; index < numRows; ++index) {
+            if (locations[index] != REMOVED) {
+                cursor.index = index;
+                action.accept(cursor);
+            }
+        }
+    }
+
+    /**
+     * Prints the events in insertion order
+     */
+    public void print() {
+        print(ReportWriter.console());
+    }
+
+    /**
+     * Writes the events in insertion order to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void print(ReportWriter out) {
+        if (numEvents == EMPTY) {
+            out.println("Event calendar is empty!");
+            out.flush();
+            return;
+        }
+        out.println("* Event calendar *");
+        for (int row = 0; row < numRows; ++row) {
+            if (locations[row] != REMOVED) {
+                out.println(view(row));
+            }
+        }
+        out.println("* end of event calendar *");
+        out.flush();
+    }
+
+    /**
+     * Prints the events ordered by date and timeslot
+     */
+    public void printByDate() {
+        printByDate(ReportWriter.console());
+    }
+
+    /**
+     * Writes the events ordered by date and timeslot to a report
+     * Rows are sorted on a key packing date, timeslot, and row number
+     * into a long, so events that tie keep their insertion order
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByDate(ReportWriter out) {
+        long[] keys = new long[numEvents];
+        int n = 0;
+        for (int row = 0; row < numRows; ++row) {
+            if (locations[row] != REMOVED) {
+                long slot = (long) dates[row] * TIMESLOTS.length
+                        + timeslots[row];
+                keys[n] = (slot << ROW_BITS) | row;
+                ++n;
+            }
+        }
+        Arrays.sort(keys);
+        int[] order = new int[numEvents];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = (int) (keys[i] & ROW_MASK);
+        }
+        printRows(out, "* Event calendar by event date and start time *",
+                order);
+    }
+
+    /**
+     * Prints the events ordered by campus and building/room
+     */
+    public void printByCampus() {
+        printByCampus(ReportWriter.console());
+    }
+
+    /**
+     * Writes the events ordered by campus and building/room to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByCampus(ReportWriter out) {
+        printRows(out, "* Event calendar by campus and building *",
+                groupBy(locations, LOCATIONS.length));
+    }
+
+    /**
+     * Prints the events ordered by department
+     */
+    public void printByDepartment() {
+        printByDepartment(ReportWriter.console());
+    }
+
+    /**
+     * Writes the events ordered by department to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByDepartment(ReportWriter out) {
+        printRows(out, "* Event calendar by department *",
+                groupBy(departments, DEPARTMENTS.length));
+    }
+
+    /**
+     * Helper method used to write rows in the specified order
+     * @param out the report the events are written to
+     * @param header the line written before the events
+     * @param order the rows to be written, in order
+     */
+    private void printRows(ReportWriter out, String header, int[] order) {
+        if (numEvents == EMPTY) {
+            out.println("Event calendar is empty!");
+            out.flush();
+            return;
+        }
+        out.println(header);
+        for (int row: order) {
+            out.println(view(row));
+        }
+        out.println("* end of event calendar *");
+        out.flush();
+    }
+
+    /**
+     * Orders the rows by an ordinal column with a counting sort, keeping
+     * insertion order within each ordinal
+     * @param column the ordinal column
+     * @param numValues the number of distinct ordinals
+     * @return the live rows in order
+     */
+    private int[] groupBy(byte[] column, int numValues) {
+        int[] next = new int[numValues + 1];
+        for (int row = 0; row < numRows; ++row) {
+            if (locations[row] != REMOVED) {
+                ++next[column[row] + 1];
+            }
+        }
+        for (int i = 1; i < next.length; ++i) {
+            next[i] += next[i - 1];
+        }
+        int[] order = new int[numEvents];
+        for (int row = 0; row < numRows; ++row) {
+            if (locations[row] != REMOVED) {
+                order[next[column[row]]] = row;
+                ++next[column[row]];
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Points the reusable view at a row; the view is only valid until the
+     * next row is read and must not be handed out of this class
+     * @param row the row
+     * @return the view
+     */
+    private Event view(int row) {
+        view.set(dateOf(row), TIMESLOTS[timeslots[row]],
+                LOCATIONS[locations[row]], contactOf(row), durations[row]);
+        return view;
+    }
+
+    /**
+     * Returns the date of a row, reusing the date of the row last read
+     * when their packed dates are equal
+     * @param row the row
+     * @return the date
+     */
+    private Date dateOf(int row) {
+        if (lastDate == null || lastDate.getPacked() != dates[row]) {
+            lastDate = Date.fromPacked(dates[row]);
+        }
+        return lastDate;
+    }
+
+    /**
+     * Returns the contact of a row from the pool
+     * @param row the row
+     * @return the contact
+     */
+    private Contact contactOf(int row) {
+        return contactPool[contacts[row]];
+    }
+
+    /**
+     * Returns the index in the pool of a contact with the same department
+     * and email, adding the contact if there is none
+     * @param contact the contact
+     * @return its index in the pool
+     */
+    private int intern(Contact contact) {
+        int[] indexes = contactIndex.computeIfAbsent(contact.getEmail(),
+                email -> newIndexes());
+        int department = contact.getDepartment().ordinal();
+        if (indexes[department] != NOT_FOUND) {
+            return indexes[department];
+        }
+        if (numContacts == contactPool.length) {
+            contactPool = Arrays.copyOf(contactPool,
+                    contactPool.length * GROWTH_FACTOR);
+        }
+        contactPool[numContacts] = contact;
+        indexes[department] = numContacts;
+        return numContacts++;
+    }
+
+    /**
+     * Makes the pool indexes of a new email, with no contact in any
+     * department yet
+     * @return the indexes, by department ordinal
+     */
+    private static int[] newIndexes() {
+        int[] indexes = new int[DEPARTMENTS.length];
+        Arrays.fill(indexes, NOT_FOUND);
+        return indexes;
+    }
+
+    /**
+     * Makes room for one more row at the end of the list, reclaiming
+     * removed rows when at least half of the list is removed rows
+     */
+    private void ensureCapacity() {
+        if (numRows < dates.length) {
+            return;
+        }
+        if (numRows - numEvents >= numRows / GROWTH_FACTOR) {
+            compact();
+        }
+        else {
+            int capacity = dates.length * GROWTH_FACTOR;
+            dates = Arrays.copyOf(dates, capacity);
+            timeslots = Arrays.copyOf(timeslots, capacity);
+            locations = Arrays.copyOf(locations, capacity);
+            departments = Arrays.copyOf(departments, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            contacts = Arrays.copyOf(contacts, capacity);
+        }
+    }
+
+    /**
+     * Squeezes out removed rows, keeping the remaining rows in their
+     * current order, and rebuilds the cell table
+     */
+    private void compact() {
+        int next = 0;
+        for (int row = 0; row < numRows; ++row) {
+            if (locations[row] != REMOVED) {
+                dates[next] = dates[row];
+                timeslots[next] = timeslots[row];
+                locations[next] = locations[row];
+                departments[next] = departments[row];
+                durations[next] = durations[row];
+                contacts[next] = contacts[row];
+                ++next;
+            }
+        }
+        numRows = next;
+        Arrays.fill(cells, FREE);
+        numCells = 0;
+        for (int row = 0; row < numRows; ++row) {
+            putCell(cell(Date.fromPacked(dates[row]),
+                    TIMESLOTS[timeslots[row]], LOCATIONS[locations[row]]),
+                    row);
+        }
+    }
+
+    /**
+     * Returns the number identifying a (date, timeslot, location) cell
+     * @param date the date
+     * @param timeslot the timeslot
+     * @param location the location
+     * @return the cell number
+     */
+    private static int cell(Date date, Timeslot timeslot,
+                            Location location) {
+        return date.toEpochDay() * SLOTS_PER_DAY
+                + timeslot.ordinal() * LOCATIONS.length + location.ordinal();
+    }
+
+    /**
+     * Returns the home position of a cell in the table
+     * @param cell the cell
+     * @return the position to start probing from
+     */
+    private int home(int cell) {
+        int hash = cell * HASH_MULTIPLIER;
+        return (hash ^ (hash >>> (Integer.SIZE / 2))) & (cells.length - 1);
+    }
+
+    /**
+     * Finds a cell in the table
+     * @param cell the cell
+     * @return its position in the table, or -1 if it is not booked
+     */
+    private int findCell(int cell) {
+        int mask = cells.length - 1;
+        for (int i = home(cell); cells[i] != FREE; i = (i + 1) & mask) {
+            if (cells[i] == cell) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Adds a cell that is not in the table, doubling the table once it
+     * is half full
+     * @param cell the cell
+     * @param row the row booking it
+     */
+    private void putCell(int cell, int row) {
+        if ((numCells + 1) * GROWTH_FACTOR > cells.length) {
+            int[] oldCells = cells;
+            int[] oldRows = cellRows;
+            cells = new int[oldCells.length * GROWTH_FACTOR];
+            Arrays.fill(cells, FREE);
+            cellRows = new int[cells.length];
+            numCells = 0;
+            for (int i = 0; i < oldCells.length; ++i) {
+                if (oldCells[i] != FREE) {
+                    putCell(oldCells[i], oldRows[i]);
+                }
+            }
+        }
+        int mask = cells.length - 1;
+        int i = home(cell);
+        while (cells[i] != FREE) {
+            i = (i + 1) & mask;
+        }
+        cells[i] = cell;
+        cellRows[i] = row;
+        ++numCells;
+    }
+
+    /**
+     * Deletes the cell at a position in the table, shifting back any
+     * cells after it that would otherwise no longer be found
+     * @param position the position of the cell
+     */
+    private void deleteCell(int position) {
+        int mask = cells.length - 1;
+        int hole = position;
+        for (int i = (hole + 1) & mask; cells[i] != FREE;
+             i = (i + 1) & mask) {
+            int home = home(cells[i]);
+            boolean canFillHole = (i > hole)
+                    ? (home <= hole || home > i)
+                    : (home <= hole && home > i);
+            if (canFillHole) {
+                cells[hole] = cells[i];
+                cellRows[hole] = cellRows[i];
+                hole = i;
+            }
+        }
+        cells[hole] = FREE;
+        --numCells;
+    }
+
+    /**
+     * A read-only view of one row, moved from row to row by forEach()
+     */
+    public final class Row {
+        private int index; // the row viewed
+
+        /**
+         * Creates a view that forEach() points at each row in turn
+         */
+        private Row() {
+        }
+
+        /**
+         * Returns the date of the event
+         * @return date
+         */
+        public Date getDate() {
+            return dateOf(index);
+        }
+
+        /**
+         * Returns the start time of the event
+         * @return start time
+         */
+        public Timeslot getStartTime() {
+            return TIMESLOTS[timeslots[index]];
+        }
+
+        /**
+         * Returns the location of the event
+         * @return location
+         */
+        public Location getLocation() {
+            return LOCATIONS[locations[index]];
+        }
+
+        /**
+         * Returns the department of the event's contact
+         * @return department
+         */
+        public Department getDepartment() {
+            return DEPARTMENTS[departments[index]];
+        }
+
+        /**
+         * Returns the contact of the event
+         * @return contact
+         */
+        public Contact getContact() {
+            return contactOf(index);
+        }
+
+        /**
+         * Returns the duration of the event
+         * @return duration in minutes
+         */
+        public int getDuration() {
+            return durations[index];
+        }
+
+        /**
+         * Copies the row into a new Event that the caller may keep
+         * @return the event
+         */
+        public Event toEvent() {
+            return new Event(getDate(), getStartTime(), getLocation(),
+                    getContact(), getDuration());
+        }
+
+        /**
+         * Returns a string representation of the event, as Event does
+         * @return the event as a string
+         */
+        @Override
+        public String toString() {
+            return view(index).toString();
+        }
+    }
+
+    /**
+     * Test case #1
+     * Tests if forEach() passes every event through one reusable view
+     * whose copies match the events added, in order
+     */
+    private static void testForEachView() {
+        System.out.println("** Test case #1: forEach() reuses one view for "
+                + "every row");
+        ColumnarEventCalendar calendar = new ColumnarEventCalendar();
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < TEST_EVENTS; ++i) {
+            Event event = testEvent(i, Department.CS);
+            calendar.add(event);
+            added.add(event.toString());
+        }
+        Set<Row> views = newIdentitySet();
+        List<String> copied = new ArrayList<>();
+        calendar.forEach(row -> {
+            views.add(row);
+            copied.add(row.toEvent().toString());
+        });
+        boolean expectedOutput = true, actualOutput = views.size() == 1
+                && copied.equals(added);
+        Testbed.printResult(TEST_EVENTS + " events", expectedOutput,
+                actualOutput);
+    }
+
+    /**
+     * Test case #2
+     * Tests if the rows of one department and email share one Contact,
+     * though each event was added with its own
+     */
+    private static void testSharedContact() {
+        System.out.println("** Test case #2: rows with the same contact "
+                + "share one Contact");
+        ColumnarEventCalendar calendar = new ColumnarEventCalendar();
+        for (int i = 0; i < TEST_EVENTS; ++i) {
+            calendar.add(testEvent(i, Department.CS));
+        }
+        Set<Contact> contacts = newIdentitySet();
+        calendar.forEach(row -> contacts.add(row.getContact()));
+        Testbed.printResult(TEST_EVENTS + " events, 1 contact", 1,
+                contacts.size());
+    }
+
+    /**
+     * Test case #3
+     * Tests if one email in two departments is kept as two contacts
+     */
+    private static void testEmailInTwoDepartments() {
+        System.out.println("** Test case #3: one email in two departments "
+                + "is two contacts");
+        ColumnarEventCalendar calendar = new ColumnarEventCalendar();
+        calendar.add(testEvent(0, Department.CS));
+        calendar.add(testEvent(1, Department.EE));
+        List<Department> departments = new ArrayList<>();
+        calendar.forEach(row -> departments.add(row.getContact()
+                .getDepartment()));
+        Testbed.printResult("CS and EE events", List.of(Department.CS,
+                Department.EE), departments);
+    }
+
+    /**
+     * Makes the event numbered i, each number a different timeslot or
+     * date, all with one email
+     * @param i the number of the event
+     * @param department the department of the contact
+     * @return the event
+     */
+    private static Event testEvent(int i, Department department) {
+        return new Event(new Date(2024, 4, 1 + i / TIMESLOTS.length),
+                TIMESLOTS[i % TIMESLOTS.length], Location.HLL114,
+                new Contact(department, "events@rutgers.edu"), 60);
+    }
+
+    /**
+     * Makes an empty set that tells objects apart by identity
+     * @param <T> the type of the objects
+     * @return the set
+     */
+    private static <T> Set<T> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Testbed main used as the driver to test forEach() and the contact
+     * pool
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        testForEachView();
+        testSharedContact();
+        testEmailInTwoDepartments();
+    }
+}
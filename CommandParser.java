@@ -0,0 +1,355 @@
+package eventorganizer;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads commands line by line from an input stream, decoding tokens
+ * straight from the byte buffer instead of creating a String per token
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class CommandParser {
+    private final InputStream in; // the stream commands are read from
+    private final String[] commands; // the recognized command names
+    private byte[] buffer; // bytes read from the stream
+    private int limit; // number of valid bytes in buffer
+    private int pos; // next byte to be parsed
+    private int lineEnd = -1; // end of the current line, excluding '\n'
+    private boolean endOfStream; // true once the stream is exhausted
+    private Flushable beforeRead; // flushed before blocking on the stream
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 13;
+    private static final int RADIX = 10;
+    private static final byte NEW_LINE = '\n';
+    private static final byte DATE_SEPARATOR = '/';
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    private static final EnumLookup<Timeslot> TIMESLOTS =
+            new EnumLookup<>(Timeslot.values());
+    private static final EnumLookup<Location> LOCATIONS =
+            new EnumLookup<>(Location.values());
+    private static final EnumLookup<Department> DEPARTMENTS =
+            new EnumLookup<>(Department.values());
+
+    /**
+     * Creates a CommandParser that recognizes the specified commands
+     * @param in the stream commands are read from
+     * @param commands the command names returned as-is by nextCommand()
+     */
+    public CommandParser(InputStream in, String... commands) {
+        this.in = in;
+        this.commands = commands;
+        this.buffer = new byte[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * Sets output to be flushed whenever the parser is about to wait for
+     * more input, so responses reach an interactive user or client
+     * without a flush per command
+     * @param out the output to flush
+     */
+    public void flushBeforeRead(Flushable out) {
+        this.beforeRead = out;
+    }
+
+    /**
+     * Moves to the next non-blank line and reads its command token
+     * @return the matching recognized command, a new String holding the
+     *         token if it is not recognized, or null at end of input
+     */
+    public String nextCommand() {
+        while (nextLine()) {
+            skipWhitespace();
+            if (pos < lineEnd) {
+                int start = pos;
+                int length = tokenLength();
+                pos += length;
+                for (String command: commands) {
+                    if (matches(command, start, length)) {
+                        return command;
+                    }
+                }
+                return new String(buffer, start, length, CHARSET);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves to the next non-blank line, for input whose lines hold only
+     * parameters and no command token
+     * @return true if there is a line, false at end of input
+     */
+    public boolean nextRow() {
+        while (nextLine()) {
+            skipWhitespace();
+            if (pos < lineEnd) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads a date token in the format mm/dd/yyyy
+     * @return the date, which may not be a valid calendar date
+     */
+    public Date nextDate() {
+        int length = nextTokenLength();
+        int end = pos + length;
+        int month = parseInt(nextDateField(end));
+        int day = parseInt(nextDateField(end));
+        int year = parseInt(nextDateField(end));
+        pos = end;
+        return new Date(year, month, day);
+    }
+
+    /**
+     * Reads a timeslot token, ignoring case
+     * @return the timeslot, or null if the token is not a timeslot
+     */
+    public Timeslot nextTimeslot() {
+        return nextEnum(TIMESLOTS);
+    }
+
+    /**
+     * Reads a location token, ignoring case
+     * @return the location, or null if the token is not a location
+     */
+    public Location nextLocation() {
+        return nextEnum(LOCATIONS);
+    }
+
+    /**
+     * Reads a department token, ignoring case
+     * @return the department, or null if the token is not a department
+     */
+    public Department nextDepartment() {
+        return nextEnum(DEPARTMENTS);
+    }
+
+    /**
+     * Reads the next token as a String
+     * @return the token
+     */
+    public String nextToken() {
+        int length = nextTokenLength();
+        String token = new String(buffer, pos, length, CHARSET);
+        pos += length;
+        return token;
+    }
+
+    /**
+     * Reads the next token as a decimal integer
+     * @return the integer value of the token
+     */
+    public int nextInt() {
+        int length = nextTokenLength();
+        return parseInt(length);
+    }
+
+    /**
+     * Reads the next line into the buffer, growing or refilling it as
+     * needed, and positions the parser at the start of the line
+     * @return true if a line was read, false at end of input
+     */
+    private boolean nextLine() {
+        pos = Math.min(lineEnd + 1, limit);
+        int scan = pos;
+        while (true) {
+            for (int i = scan; i < limit; ++i) {
+                if (buffer[i] == NEW_LINE) {
+                    lineEnd = i;
+                    return true;
+                }
+            }
+            if (endOfStream) {
+                lineEnd = limit;
+                return pos < limit;
+            }
+            scan = limit - pos;
+            fill();
+        }
+    }
+
+    /**
+     * Moves the unparsed bytes to the front of the buffer and reads more
+     * bytes from the stream after them
+     */
+    private void fill() {
+        int remaining = limit - pos;
+        if (remaining == buffer.length) {
+            byte[] larger = new byte[buffer.length * 2];
+            System.arraycopy(buffer, pos, larger, 0, remaining);
+            buffer = larger;
+        }
+        else {
+            System.arraycopy(buffer, pos, buffer, 0, remaining);
+        }
+        pos = 0;
+        limit = remaining;
+        try {
+            if (beforeRead != null) {
+                beforeRead.flush();
+            }
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfStream = true;
+            }
+            else {
+                limit += read;
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Skips whitespace within the current line
+     */
+    private void skipWhitespace() {
+        while (pos < lineEnd && isWhitespace(buffer[pos])) {
+            ++pos;
+        }
+    }
+
+    /**
+     * Skips to the next token in the current line
+     * @return the length of the token
+     * @throws NoSuchElementException if the line has no more tokens
+     */
+    private int nextTokenLength() {
+        skipWhitespace();
+        if (pos == lineEnd) {
+            throw new NoSuchElementException();
+        }
+        return tokenLength();
+    }
+
+    /**
+     * Returns the length of the token starting at the current position
+     * @return number of bytes before the next whitespace or end of line
+     */
+    private int tokenLength() {
+        int end = pos;
+        while (end < lineEnd && !isWhitespace(buffer[end])) {
+            ++end;
+        }
+        return end - pos;
+    }
+
+    /**
+     * Positions the parser at the next '/' separated field of a date token
+     * @param end the end of the date token
+     * @return the length of the field
+     * @throws NoSuchElementException if the token has no more fields
+     */
+    private int nextDateField(int end) {
+        while (pos < end && buffer[pos] == DATE_SEPARATOR) {
+            ++pos;
+        }
+        if (pos == end) {
+            throw new NoSuchElementException();
+        }
+        int fieldEnd = pos;
+        while (fieldEnd < end && buffer[fieldEnd] != DATE_SEPARATOR) {
+            ++fieldEnd;
+        }
+        return fieldEnd - pos;
+    }
+
+    /**
+     * Parses the bytes at the current position as a signed decimal
+     * integer, following the rules of Integer.parseInt, and moves past them
+     * @param length the number of bytes to parse
+     * @return the integer value
+     * @throws NumberFormatException if the bytes are not a valid int
+     */
+    private int parseInt(int length) {
+        int start = pos, end = pos + length, i = pos;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            ++i;
+        }
+        if (i == end) {
+            throw invalidNumber(start, length);
+        }
+        long value = 0;
+        for (; i < end; ++i) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit >= RADIX) {
+                throw invalidNumber(start, length);
+            }
+            value = value * RADIX + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw invalidNumber(start, length);
+            }
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw invalidNumber(start, length);
+        }
+        pos = end;
+        return (int) value;
+    }
+
+    /**
+     * Creates the exception thrown for a token that is not a valid int
+     * @param start the start of the token
+     * @param length the length of the token
+     * @return the exception describing the token
+     */
+    private NumberFormatException invalidNumber(int start, int length) {
+        return new NumberFormatException("For input string: \""
+                + new String(buffer, start, length, CHARSET) + "\"");
+    }
+
+    /**
+     * Reads a token and returns the constant whose name matches it,
+     * ignoring case
+     * @param lookup the lookup table of the enum
+     * @return the matching constant, or null if there is none
+     */
+    private <E extends Enum<E>> E nextEnum(EnumLookup<E> lookup) {
+        int length = nextTokenLength();
+        E value = lookup.find(buffer, pos, length);
+        pos += length;
+        return value;
+    }
+
+    /**
+     * Checks if the bytes of a token equal the specified string
+     * @param str the string to compare to
+     * @param start the start of the token
+     * @param length the length of the token
+     * @return true if the same characters, false otherwise
+     */
+    private boolean matches(String str, int start, int length) {
+        if (str.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; ++i) {
+            if (buffer[start + i] != str.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a byte is a token delimiter, matching StringTokenizer
+     * @param b the byte to check
+     * @return true if space, tab, carriage return, or form feed
+     */
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f';
+    }
+}
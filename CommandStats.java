@@ -0,0 +1,223 @@
+package eventorganizer;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and booking counters for the commands EventOrganizer
+ * runs; each command is timed as a whole and broken into its parse,
+ * validate, apply, and render phases
+ * Every session of a process records into the one shared() instance:
+ * recording takes no lock and goes to striped histograms and counters,
+ * so sessions on different threads rarely touch the same counter, and
+ * report() merges the stripes while commands keep running; starting
+ * Java with -Deventorganizer.stats=off makes the shared instance the
+ * disabled() one, which records nothing
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class CommandStats {
+    private final boolean isEnabled; // false if recording is a no-op
+    private final LatencyHistogram[][] histograms; // by command and phase
+    private final LongAdder accepted; // bookings added to the calendar
+    private final LongAdder rejected; // invalid or overlapping bookings
+    private final LongAdder duplicates; // bookings already on the calendar
+
+    private static final Command[] COMMANDS = Command.values();
+    private static final Phase[] PHASES = Phase.values();
+    private static final int TOTAL = PHASES.length;
+    private static final String SWITCH = "eventorganizer.stats";
+    private static final String OFF = "off";
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+    private static final String[] PERCENTILE_LABELS = {"p50", "p99", "p999"};
+    private static final double NANOS_PER_MICRO = 1e3;
+
+    private static final CommandStats DISABLED = new CommandStats(false);
+    private static final CommandStats SHARED =
+            OFF.equals(System.getProperty(SWITCH)) ? DISABLED
+                    : new CommandStats(true);
+
+    /**
+     * The commands that are timed, with the names they are typed as
+     */
+    public enum Command {
+        ADD ("A"),
+        REMOVE ("R"),
+        PRINT ("P"),
+        PRINT_BY_DATE ("PE"),
+        PRINT_BY_CAMPUS ("PC"),
+        PRINT_BY_DEPARTMENT ("PD");
+
+        private final String name; // the command as typed
+
+        /**
+         * Creates a timed command
+         * @param name the command as typed
+         */
+        Command(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the command as typed
+         * @return command name
+         */
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+
+    /**
+     * The parts each command is broken into
+     */
+    public enum Phase {
+        PARSE, VALIDATE, APPLY, RENDER
+    }
+
+    /**
+     * Creates empty statistics for every timed command, or a no-op
+     * recorder that allocates no histograms
+     * @param isEnabled whether anything is recorded
+     */
+    private CommandStats(boolean isEnabled) {
+        this.isEnabled = isEnabled;
+        this.histograms = new LatencyHistogram[isEnabled ? COMMANDS.length
+                : 0][TOTAL + 1];
+        for (LatencyHistogram[] phases: histograms) {
+            for (int i = 0; i < phases.length; ++i) {
+                phases[i] = new LatencyHistogram();
+            }
+        }
+        this.accepted = new LongAdder();
+        this.rejected = new LongAdder();
+        this.duplicates = new LongAdder();
+    }
+
+    /**
+     * Returns the statistics shared by every session of this process,
+     * which are disabled() if eventorganizer.stats is set to off
+     * @return shared statistics
+     */
+    public static CommandStats shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns statistics that record nothing
+     * @return the no-op recorder
+     */
+    public static CommandStats disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Tells whether anything is recorded, so callers can skip reading
+     * the clock when it is not
+     * @return true if recording, false for the no-op recorder
+     */
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Records the time one phase of a command took
+     * @param command the command
+     * @param phase the phase
+     * @param nanos the time in nanoseconds
+     */
+    public void record(Command command, Phase phase, long nanos) {
+        if (isEnabled) {
+            histograms[command.ordinal()][phase.ordinal()].record(nanos);
+        }
+    }
+
+    /**
+     * Records the time a whole command took
+     * @param command the command
+     * @param nanos the time in nanoseconds
+     */
+    public void recordTotal(Command command, long nanos) {
+        if (isEnabled) {
+            histograms[command.ordinal()][TOTAL].record(nanos);
+        }
+    }
+
+    /**
+     * Counts bookings added to the calendar
+     * @param bookings the number of bookings
+     */
+    public void countAccepted(long bookings) {
+        if (isEnabled) {
+            accepted.add(bookings);
+        }
+    }
+
+    /**
+     * Counts bookings rejected for invalid details, or for overlapping
+     * another event
+     * @param bookings the number of bookings
+     */
+    public void countRejected(long bookings) {
+        if (isEnabled) {
+            rejected.add(bookings);
+        }
+    }
+
+    /**
+     * Counts bookings that were already on the calendar
+     * @param bookings the number of bookings
+     */
+    public void countDuplicates(long bookings) {
+        if (isEnabled) {
+            duplicates.add(bookings);
+        }
+    }
+
+    /**
+     * Writes the counters and, for each command that has run, its
+     * latency percentiles as a whole and by phase
+     * @param out the report the statistics are written to
+     */
+    public void report(ReportWriter out) {
+        if (!isEnabled) {
+            out.println("Statistics are disabled.");
+            return;
+        }
+        out.println("* Command statistics *");
+        out.println("Bookings: " + accepted.sum() + " accepted, "
+                + rejected.sum() + " rejected, " + duplicates.sum()
+                + " duplicate");
+        for (Command command: COMMANDS) {
+            LatencyHistogram[] phases = histograms[command.ordinal()];
+            long count = phases[TOTAL].count();
+            if (count == 0) {
+                continue;
+            }
+            out.println(command + ": " + count + " commands");
+            out.println(line("  total", phases[TOTAL]));
+            for (Phase phase: PHASES) {
+                LatencyHistogram histogram = phases[phase.ordinal()];
+                if (histogram.count() > 0) {
+                    out.println(line("  " + phase.name().toLowerCase(),
+                            histogram));
+                }
+            }
+        }
+        out.println("* end of command statistics *");
+    }
+
+    /**
+     * Formats the percentiles of one histogram, in microseconds
+     * @param label the label the line starts with
+     * @param histogram the histogram
+     * @return the line
+     */
+    private static String line(String label, LatencyHistogram histogram) {
+        StringBuilder sb = new StringBuilder(String.format("%-10s", label));
+        for (int i = 0; i < PERCENTILES.length; ++i) {
+            sb.append(String.format(" %s %.1fus", PERCENTILE_LABELS[i],
+                    histogram.percentile(PERCENTILES[i]) / NANOS_PER_MICRO));
+        }
+        return sb.append(String.format(" max %.1fus",
+                histogram.max() / NANOS_PER_MICRO)).toString();
+    }
+}
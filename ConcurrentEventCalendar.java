@@ -0,0 +1,495 @@
+package eventorganizer;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Represents a list of events that many threads can book into at once
+ * Events are striped by location: each location has its own lock, so
+ * bookings for different rooms never wait on each other, and its own
+ * copy-on-write array that readers use without taking any lock
+ * Each change copies the array of its location, so it costs O(events at
+ * the location); since a location holds at most three events a day and
+ * events are booked at most six months ahead, that is a few hundred
+ * entries in steady use, and the copies let reports run without locks
+ * Bookings are numbered without a shared counter: a booking takes one
+ * more than the latest number of any location, so a booking made after
+ * another completed always sorts after it, and bookings made at once in
+ * different rooms only read each other's latest number
+ * A snapshot takes no lock: it reads one array reference per location
+ * and reads them again, retrying if any changed, so it is the state at
+ * one instant between changes and never a mix, and writers never wait
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class ConcurrentEventCalendar implements EventStore {
+    private final Stripe[] stripes; // one per location, by ordinal
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final int NOT_FOUND = -1;
+    private static final int TEST_THREADS = 4;
+    private static final int TEST_EVENTS = 3000;
+
+    /**
+     * Creates an empty calendar
+     */
+    public ConcurrentEventCalendar() {
+        stripes = new Stripe[Location.values().length];
+        for (int i = 0; i < stripes.length; ++i) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Adds an event unless an event with the same date, timeslot, and
+     * location is already booked; the check and the insert are atomic
+     * @param  event the event to be added
+     * @return true if event is successfully added,
+     *         false if the event is already in the list
+     */
+    @Override
+    public boolean add(Event event) {
+        Stripe stripe = stripeOf(event);
+        stripe.lock.lock();
+        try {
+            if (stripe.index.containsKey(event)) {
+                return false;
+            }
+            Entry entry = new Entry(event, nextSequence());
+            stripe.lastSequence = entry.sequence;
+            Entry[] entries = stripe.entries;
+            Entry[] added = Arrays.copyOf(entries, entries.length + 1);
+            added[entries.length] = entry;
+            stripe.entries = added;
+            stripe.index.put(event, entry);
+            return true;
+        }
+        finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the specified event from the list if it exists
+     * @param  event the event to be deleted
+     * @return true if event is successfully deleted,
+     *         false if event is not found in list
+     */
+    @Override
+    public boolean remove(Event event) {
+        Stripe stripe = stripeOf(event);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.index.get(event);
+            if (entry == null) {
+                return false;
+            }
+            Entry[] entries = stripe.entries;
+            int position = indexOf(entries, entry);
+            Entry[] removed = new Entry[entries.length - 1];
+            System.arraycopy(entries, 0, removed, 0, position);
+            System.arraycopy(entries, position + 1, removed, position,
+                    removed.length - position);
+            stripe.entries = removed;
+            stripe.index.remove(event);
+            return true;
+        }
+        finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether an event exists in the list, without locking
+     * @param  event the event to be searched
+     * @return true if list contains specified event, false if not
+     */
+    @Override
+    public boolean contains(Event event) {
+        return stripeOf(event).index.containsKey(event);
+    }
+
+    /**
+     * Returns the number of events, without locking
+     * @return number of events
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe: stripes) {
+            size += stripe.entries.length;
+        }
+        return size;
+    }
+
+    /**
+     * Copies the events into a new EventCalendar in booking order
+     * Every location is read as of one instant between two changes: the
+     * copy holds every change that completed before the call started and
+     * no part of any change still in progress; no lock is taken, so
+     * writers never wait for it
+     * @return a calendar that later bookings do not change
+     */
+    public EventCalendar snapshot() {
+        Entry[][] captured = capture();
+        int size = 0;
+        for (Entry[] entries: captured) {
+            size += entries.length;
+        }
+        EventCalendar calendar = new EventCalendar(size);
+        int[] next = new int[captured.length];
+        for (int n = 0; n < size; ++n) {
+            int earliest = NOT_FOUND;
+            for (int i = 0; i < captured.length; ++i) {
+                if (next[i] < captured[i].length && (earliest == NOT_FOUND
+                        || captured[i][next[i]].sequence
+                        < captured[earliest][next[earliest]].sequence)) {
+                    earliest = i;
+                }
+            }
+            calendar.add(captured[earliest][next[earliest]].event);
+            ++next[earliest];
+        }
+        return calendar;
+    }
+
+    /**
+     * Prints a snapshot of the events in booking order
+     */
+    public void print() {
+        snapshot().print();
+    }
+
+    /**
+     * Writes a snapshot of the events in booking order to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void print(ReportWriter out) {
+        snapshot().print(out);
+    }
+
+    /**
+     * Prints a snapshot of the events ordered by date and timeslot
+     */
+    public void printByDate() {
+        snapshot().printByDate();
+    }
+
+    /**
+     * Writes a snapshot of the events ordered by date and timeslot
+     * to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByDate(ReportWriter out) {
+        snapshot().printByDate(out);
+    }
+
+    /**
+     * Prints a snapshot of the events ordered by campus and building/room
+     */
+    public void printByCampus() {
+        snapshot().printByCampus();
+    }
+
+    /**
+     * Writes a snapshot of the events ordered by campus and
+     * building/room to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByCampus(ReportWriter out) {
+        snapshot().printByCampus(out);
+    }
+
+    /**
+     * Prints a snapshot of the events ordered by department
+     */
+    public void printByDepartment() {
+        snapshot().printByDepartment();
+    }
+
+    /**
+     * Writes a snapshot of the events ordered by department to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByDepartment(ReportWriter out) {
+        snapshot().printByDepartment(out);
+    }
+
+    /**
+     * Reads the array of every location, then reads them all again and
+     * starts over if any changed in between
+     * Each change publishes a new array, so if none changed, every
+     * location held the array read throughout the instant between the
+     * two passes, and the arrays are the state at that instant
+     * @return the arrays, by location ordinal
+     */
+    private Entry[][] capture() {
+        Entry[][] captured = new Entry[stripes.length][];
+        boolean isCut;
+        do {
+            for (int i = 0; i < stripes.length; ++i) {
+                captured[i] = stripes[i].entries;
+            }
+            isCut = true;
+            for (int i = 0; i < stripes.length && isCut; ++i) {
+                isCut = stripes[i].entries == captured[i];
+            }
+        } while (!isCut);
+        return captured;
+    }
+
+    /**
+     * Returns the number of a new booking: one more than the latest
+     * number of any location, read without locking the other locations
+     * Ties between bookings made at once in different rooms are broken
+     * by location when the stripes are merged
+     * @return the booking number
+     */
+    private long nextSequence() {
+        long latest = 0;
+        for (Stripe stripe: stripes) {
+            latest = Math.max(latest, stripe.lastSequence);
+        }
+        return latest + 1;
+    }
+
+    /**
+     * Returns the stripe that holds events at the location of an event
+     * @param event the event
+     * @return the stripe for its location
+     */
+    private Stripe stripeOf(Event event) {
+        return stripes[event.getLocation().ordinal()];
+    }
+
+    /**
+     * Finds an entry in an array by identity
+     * @param entries the array
+     * @param entry the entry
+     * @return the position of the entry
+     */
+    private static int indexOf(Entry[] entries, Entry entry) {
+        for (int i = 0; i < entries.length; ++i) {
+            if (entries[i] == entry) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * The events at one location
+     */
+    private static class Stripe {
+        private final ReentrantLock lock = new ReentrantLock(); // writers
+        private final ConcurrentHashMap<Event, Entry> index =
+                new ConcurrentHashMap<>(); // written under lock
+        private volatile Entry[] entries = NO_ENTRIES; // in booking order
+        private volatile long lastSequence; // of the latest booking here
+    }
+
+    /**
+     * A booked event and the order it was booked in
+     */
+    private static class Entry {
+        private final Event event;
+        private final long sequence;
+
+        /**
+         * Creates an entry
+         * @param event the booked event
+         * @param sequence the order it was booked in
+         */
+        Entry(Event event, long sequence) {
+            this.event = event;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Test case #1
+     * Tests if threads adding different events all succeed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void testConcurrentAdds() throws InterruptedException {
+        System.out.println("** Test case #1: threads add different events "
+                + "at once");
+        ConcurrentEventCalendar calendar = new ConcurrentEventCalendar();
+        runThreads(thread -> {
+            for (int i = thread; i < TEST_EVENTS; i += TEST_THREADS) {
+                calendar.add(testEvent(i));
+            }
+        });
+        Testbed.printResult(TEST_THREADS + " threads, " + TEST_EVENTS
+                + " events", TEST_EVENTS, calendar.size());
+    }
+
+    /**
+     * Test case #2
+     * Tests if only one of the threads adding the same event succeeds
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void testConcurrentDuplicates()
+            throws InterruptedException {
+        System.out.println("** Test case #2: threads add the same events "
+                + "at once, each is booked once");
+        ConcurrentEventCalendar calendar = new ConcurrentEventCalendar();
+        int[] added = new int[TEST_THREADS];
+        runThreads(thread -> {
+            for (int i = 0; i < TEST_EVENTS; ++i) {
+                if (calendar.add(testEvent(i))) {
+                    ++added[thread];
+                }
+            }
+        });
+        Testbed.printResult(TEST_THREADS + " threads, " + TEST_EVENTS
+                + " events", TEST_EVENTS, Arrays.stream(added).sum());
+    }
+
+    /**
+     * Test case #3
+     * Tests if threads adding and removing events leave none behind
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void testConcurrentAddRemove()
+            throws InterruptedException {
+        System.out.println("** Test case #3: threads add and remove their "
+                + "own events, calendar ends empty");
+        ConcurrentEventCalendar calendar = new ConcurrentEventCalendar();
+        int[] failed = new int[TEST_THREADS];
+        runThreads(thread -> {
+            for (int i = thread; i < TEST_EVENTS; i += TEST_THREADS) {
+                Event event = testEvent(i);
+                if (!calendar.add(event) || !calendar.contains(event)
+                        || !calendar.remove(event)
+                        || calendar.contains(event)) {
+                    ++failed[thread];
+                }
+            }
+        });
+        Testbed.printResult(TEST_THREADS + " threads, " + TEST_EVENTS
+                + " events", 0, Arrays.stream(failed).sum() + calendar.size());
+    }
+
+    /**
+     * Test case #4
+     * Tests if a snapshot taken while events are added holds exactly the
+     * events added before some instant, and no later one
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void testSnapshotCut() throws InterruptedException {
+        System.out.println("** Test case #4: a snapshot holds a prefix of "
+                + "the bookings made across locations");
+        ConcurrentEventCalendar calendar = new ConcurrentEventCalendar();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < TEST_EVENTS; ++i) {
+                calendar.add(testEvent(i));
+            }
+        });
+        writer.start();
+        int torn = 0;
+        while (writer.isAlive()) {
+            EventCalendar snapshot = calendar.snapshot();
+            int size = snapshot.size();
+            for (int i = 0; i < size; ++i) {
+                if (!snapshot.contains(testEvent(i))) {
+                    ++torn;
+                    break;
+                }
+            }
+        }
+        writer.join();
+        Testbed.printResult(TEST_EVENTS + " events booked across "
+                + Location.values().length + " locations", 0, torn);
+    }
+
+    /**
+     * Test case #5
+     * Tests if a snapshot lists the bookings of each thread in the order
+     * the thread made them, though the threads book different rooms
+     * without a shared counter
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void testBookingOrder() throws InterruptedException {
+        System.out.println("** Test case #5: each thread's bookings are "
+                + "listed in the order it made them");
+        ConcurrentEventCalendar calendar = new ConcurrentEventCalendar();
+        runThreads(thread -> {
+            for (int i = thread; i < TEST_EVENTS; i += TEST_THREADS) {
+                calendar.add(testEvent(i));
+            }
+        });
+        StringWriter text = new StringWriter();
+        calendar.print(new ReportWriter(text));
+        Map<String, Integer> positions = new HashMap<>();
+        for (String line: text.toString().split(System.lineSeparator())) {
+            positions.put(line, positions.size());
+        }
+        int outOfOrder = 0;
+        for (int i = TEST_THREADS; i < TEST_EVENTS; ++i) {
+            if (positions.get(testEvent(i - TEST_THREADS).toString())
+                    > positions.get(testEvent(i).toString())) {
+                ++outOfOrder;
+            }
+        }
+        Testbed.printResult(TEST_THREADS + " threads, " + TEST_EVENTS
+                + " events", 0, outOfOrder);
+    }
+
+    /**
+     * Runs a task on several threads at once and waits for them all
+     * @param task the task, given the number of its thread
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void runThreads(IntConsumer task)
+            throws InterruptedException {
+        Thread[] threads = new Thread[TEST_THREADS];
+        for (int i = 0; i < threads.length; ++i) {
+            int thread = i;
+            threads[i] = new Thread(() -> task.accept(thread));
+            threads[i].start();
+        }
+        for (Thread thread: threads) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Makes the event numbered i, each number a different date, timeslot,
+     * and location, with consecutive numbers at different locations
+     * @param i the number of the event
+     * @return the event
+     */
+    private static Event testEvent(int i) {
+        Location[] locations = Location.values();
+        Timeslot[] timeslots = Timeslot.values();
+        int cell = i / locations.length;
+        int day = cell / timeslots.length;
+        Date date = new Date(2024 + day / (12 * 28), 1 + day / 28 % 12,
+                1 + day % 28);
+        return new Event(date, timeslots[cell % timeslots.length],
+                locations[i % locations.length],
+                new Contact(Department.CS, "cs@rutgers.edu"), 60);
+    }
+
+    /**
+     * Testbed main used as the driver to test add(), remove(), and
+     * snapshot() from several threads
+     * @param args command line arguments
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static void main(String[] args) throws InterruptedException {
+        testConcurrentAdds();
+        testConcurrentDuplicates();
+        testConcurrentAddRemove();
+        testSnapshotCut();
+        testBookingOrder();
+    }
+}
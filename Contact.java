@@ -5,8 +5,13 @@ package eventorganizer;
  * @author Jeeva Ramasamy, Parth Patel
  */
 public class Contact {
-    private Department department;
-    private String email;
+    private final Department department;
+    private final String email;
+    private final boolean isValid; // validity, checked once on creation
+    private final int id; // id in a ContactRegistry, or NOT_REGISTERED
+
+    private static final String EMAIL_DOMAIN = "@rutgers.edu";
+    static final int NOT_REGISTERED = -1; // id of an unregistered contact
 
     /**
      * Creates a Contact object with the specified department and email
@@ -14,8 +19,32 @@ public class Contact {
      * @param email the email of the contact
      */
     public Contact(Department department, String email) {
+        this(department, email, NOT_REGISTERED);
+    }
+
+    /**
+     * Creates a Contact object with an id assigned by a ContactRegistry
+     * @param department the department of the contact
+     * @param email the email of the contact
+     * @param id the id of the contact in the registry
+     */
+    Contact(Department department, String email, int id) {
         this.department = department;
         this.email = email;
+        this.isValid = isValid(department, email);
+        this.id = id;
+    }
+
+    /**
+     * Checks if a department and email address would make a valid
+     * contact, without creating one
+     * @param department the department of the contact
+     * @param email the email of the contact
+     * @return true if valid, false otherwise
+     */
+    public static boolean isValid(Department department, String email) {
+        return department != null && email != null
+                && email.endsWith(EMAIL_DOMAIN);
     }
 
     /**
@@ -26,19 +55,29 @@ public class Contact {
         return this.department;
     }
 
+    /**
+     * Returns the email of this contact
+     * @return email
+     */
+    public String getEmail() {
+        return this.email;
+    }
+
+    /**
+     * Returns the id of this contact in the ContactRegistry that created
+     * it, a small integer in order of registration
+     * @return id, or -1 if the contact was not created by a registry
+     */
+    public int getId() {
+        return this.id;
+    }
+
     /**
      * Checks if the department name and email address are valid
      * @return true if valid, false otherwise
      */
     public boolean isValid() {
-        if (!this.email.endsWith("@rutgers.edu"))
-            return false;
-
-        for (Department department: Department.values()) {
-            if (this.department.name().equals(department.name()))
-                return true;
-        }
-        return false;
+        return this.isValid;
     }
 
     /**
@@ -47,6 +86,17 @@ public class Contact {
      */
     @Override
     public String toString() {
-        return this.department + ", " + this.email;
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the contact to the specified builder without creating
+     * intermediate strings
+     * @param sb the builder the contact is appended to
+     * @return the same builder, in format department, email
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        return sb.append(this.department).append(", ")
+                .append(this.email);
     }
 }
@@ -0,0 +1,237 @@
+package eventorganizer;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns contacts so that each valid (department, email) pair is
+ * represented by one shared Contact, validated once, whose email String
+ * is shared with the contacts of the same email in other departments
+ * Each interned contact gets a small integer id in order of
+ * registration, which can index arrays when grouping by organizer
+ * Lookups of known contacts take no lock; registering a new one does
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class ContactRegistry {
+    // the interned contacts of each email, by department ordinal
+    private final ConcurrentHashMap<String, Contact[]> byEmail;
+    private volatile Contact[] byId; // interned contacts by id
+    private int numContacts; // number of interned contacts
+
+    private static final Department[] DEPARTMENTS = Department.values();
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int GROWTH_FACTOR = 2;
+
+    private static final ContactRegistry SHARED = new ContactRegistry();
+    private static final EventClock TEST_CLOCK = new EventClock(Clock.fixed(
+            Instant.parse("2026-01-15T12:00:00Z"), ZoneOffset.UTC));
+
+    /**
+     * Creates an empty registry
+     */
+    public ContactRegistry() {
+        byEmail = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+        byId = new Contact[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the registry shared by every EventOrganizer and calendar
+     * @return shared registry
+     */
+    public static ContactRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the shared Contact for a department and email
+     * Invalid contacts are not interned, so bad input cannot grow the
+     * registry; a new Contact is returned for them instead
+     * @param department the department of the contact
+     * @param email the email of the contact
+     * @return the interned contact if valid, otherwise a new contact
+     */
+    public Contact intern(Department department, String email) {
+        Contact contact = lookup(department, email);
+        if (contact != null) {
+            return contact;
+        }
+        contact = new Contact(department, email);
+        return contact.isValid() ? register(contact) : contact;
+    }
+
+    /**
+     * Returns the shared Contact for a department and email if one has
+     * been interned, without interning it otherwise, so a command can
+     * build its event before it is known to be accepted
+     * @param department the department of the contact
+     * @param email the email of the contact
+     * @return the interned contact if there is one, otherwise a new
+     *         contact that intern(Contact) can register later
+     */
+    public Contact find(Department department, String email) {
+        Contact contact = lookup(department, email);
+        return (contact != null) ? contact : new Contact(department, email);
+    }
+
+    /**
+     * Interns a contact returned by find() once its booking has been
+     * accepted; an interned or invalid contact is returned as it is
+     * @param contact the contact
+     * @return the interned contact if valid, otherwise the contact
+     */
+    public Contact intern(Contact contact) {
+        return (contact.getId() != Contact.NOT_REGISTERED || !contact.isValid())
+                ? contact : register(contact);
+    }
+
+    /**
+     * Returns an interned contact by id
+     * @param id the id of the contact
+     * @return the contact
+     * @throws IndexOutOfBoundsException if no contact has the id
+     */
+    public Contact get(int id) {
+        Contact[] contacts = byId;
+        if (id < 0 || id >= contacts.length || contacts[id] == null) {
+            throw new IndexOutOfBoundsException("No contact with id " + id);
+        }
+        return contacts[id];
+    }
+
+    /**
+     * Returns the number of interned contacts, which is one more than
+     * the largest id
+     * @return number of contacts
+     */
+    public synchronized int size() {
+        return numContacts;
+    }
+
+    /**
+     * Returns the interned contact for a department and email
+     * @param department the department of the contact
+     * @param email the email of the contact
+     * @return the interned contact, or null if there is none
+     */
+    private Contact lookup(Department department, String email) {
+        Contact[] contacts = byEmail.get(email);
+        if (contacts == null || department == null) {
+            return null;
+        }
+        return contacts[department.ordinal()];
+    }
+
+    /**
+     * Interns a valid contact unless another thread has just done so
+     * @param contact the contact
+     * @return the interned contact
+     */
+    private synchronized Contact register(Contact contact) {
+        Contact[] contacts = byEmail.computeIfAbsent(contact.getEmail(),
+                email -> new Contact[DEPARTMENTS.length]);
+        int department = contact.getDepartment().ordinal();
+        if (contacts[department] != null) {
+            return contacts[department];
+        }
+        String email = firstEmail(contacts, contact.getEmail());
+        Contact interned = new Contact(contact.getDepartment(), email,
+                numContacts);
+        Contact[] ids = byId;
+        if (numContacts == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * GROWTH_FACTOR);
+        }
+        ids[numContacts] = interned;
+        ++numContacts;
+        byId = ids;
+        contacts[department] = interned;
+        return interned;
+    }
+
+    /**
+     * Returns the email String already shared by the contacts of an
+     * email, or the specified one if there are none yet
+     * @param contacts the contacts of the email, by department ordinal
+     * @param email the email
+     * @return the String to share
+     */
+    private static String firstEmail(Contact[] contacts, String email) {
+        for (Contact contact: contacts) {
+            if (contact != null) {
+                return contact.getEmail();
+            }
+        }
+        return email;
+    }
+
+    /**
+     * Test case #1
+     * Tests if find() leaves a new contact out of the registry
+     */
+    private static void testFindDoesNotIntern() {
+        System.out.println("** Test case #1: find() does not intern a new "
+                + "contact");
+        int before = SHARED.size();
+        Contact contact = SHARED.find(Department.CS, "find@rutgers.edu");
+        Testbed.printResult(contact, before + " contacts, not registered",
+                SHARED.size() + " contacts, " + (contact.getId()
+                == Contact.NOT_REGISTERED ? "not registered" : "registered"));
+    }
+
+    /**
+     * Test case #2
+     * Tests if an A command rejected for its date leaves its contact out
+     * of the registry
+     */
+    private static void testRejectedAdd() {
+        System.out.println("** Test case #2: a rejected A does not intern "
+                + "its contact");
+        testAdds("A 2/30/2026 morning HLL114 CS bad-date@rutgers.edu 60",
+                0);
+    }
+
+    /**
+     * Test case #3
+     * Tests if an accepted A command interns its contact, and an A
+     * command for the same slot with a new email does not
+     */
+    private static void testAcceptedAdd() {
+        System.out.println("** Test case #3: only the accepted A interns "
+                + "its contact");
+        testAdds("A 3/10/2026 morning HLL114 CS booked@rutgers.edu 60\n"
+                + "A 3/10/2026 morning HLL114 CS again@rutgers.edu 60", 1);
+    }
+
+    /**
+     * Runs commands through an EventOrganizer and prints whether they
+     * interned the expected number of contacts in the shared registry
+     * @param commands the commands, one per line
+     * @param expectedNew the number of contacts they should intern
+     */
+    private static void testAdds(String commands, int expectedNew) {
+        int before = SHARED.size();
+        new EventOrganizer(TEST_CLOCK, CommandStats.disabled()).run(
+                new EventCalendar(), new ByteArrayInputStream(commands
+                        .getBytes(StandardCharsets.UTF_8)),
+                new ReportWriter(new StringWriter()));
+        Testbed.printResult(commands.replace("\n", "; "), expectedNew
+                + " contacts interned", SHARED.size() - before
+                + " contacts interned");
+    }
+
+    /**
+     * Testbed main used as the driver to test find() and the contacts
+     * EventOrganizer interns
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        testFindDoesNotIntern();
+        testRejectedAdd();
+        testAcceptedAdd();
+    }
+}
@@ -1,18 +1,16 @@
 package eventorganizer;
 
-import java.util.Calendar;
+import java.time.LocalDate;
 
 /**
  * Represents a date with year, month, and day
  * @author Jeeva Ramasamy, Parth Patel
  */
 public class Date implements Comparable<Date> {
-    private int year;
-    private int month;
-    private int day;
-
-    private static final int GREATER_THAN = 1;
-    private static final int LESS_THAN = -1;
+    private final int year;
+    private final int month;
+    private final int day;
+    private final int packed; // yyyymmdd, ordered the same as the date
 
     private static final int JANUARY = 1;
     private static final int MARCH = 3;
@@ -35,9 +33,17 @@ public class Date implements Comparable<Date> {
     private static final int FEBRUARY_DAYS = 28;
     private static final int FEBRUARY_DAYS_LEAP_YEAR = 29;
 
-    private static final int CALENDAR_MONTH_OFFSET = 1;
+    private static final int FEBRUARY = 2;
     private static final int MONTHS_IN_YEAR = 12;
-    private static final int MAX_EVENT_MONTH_RANGE = 6;
+    private static final int MONTHS_AFTER_FEBRUARY = 9;
+    private static final int DAYS_IN_YEAR = 365;
+    private static final int DAYS_PER_FIVE_MONTHS = 153;
+    private static final int MONTHS_PER_FIVE = 5;
+    private static final int DAYS_PER_ERA = 146097;
+    private static final int DAYS_TO_EPOCH = 719468;
+
+    private static final int MONTH_FACTOR = 100;
+    private static final int DAY_FACTOR = 100;
 
     /**
      * Creates a Date object with the specified year, month, and day
@@ -49,6 +55,56 @@ public class Date implements Comparable<Date> {
         this.year = year;
         this.month = month;
         this.day = day;
+        this.packed = (year * MONTH_FACTOR + month) * DAY_FACTOR + day;
+    }
+
+    /**
+     * Creates a Date object from its packed yyyymmdd form
+     * @param packed the date in the format returned by getPacked()
+     * @return the date
+     */
+    public static Date fromPacked(int packed) {
+        return new Date(packed / (MONTH_FACTOR * DAY_FACTOR),
+                packed / DAY_FACTOR % MONTH_FACTOR, packed % DAY_FACTOR);
+    }
+
+    /**
+     * Returns the date packed into a single integer yyyymmdd, which orders
+     * valid dates the same way compareTo() does
+     * @return packed date
+     */
+    public int getPacked() {
+        return this.packed;
+    }
+
+    /**
+     * Returns the number of days from 1/1/1970 to this date, which must
+     * be a valid date
+     * @return epoch day, negative for dates before 1970
+     */
+    public int toEpochDay() {
+        // days from civil: count years from March so the leap day is last
+        int y = (this.month <= FEBRUARY) ? this.year - 1 : this.year;
+        int era = Math.floorDiv(y, QUARTERCENTENNIAL);
+        int yearOfEra = y - era * QUARTERCENTENNIAL;
+        int monthFromMarch = (this.month + MONTHS_AFTER_FEBRUARY)
+                % MONTHS_IN_YEAR;
+        int dayOfYear = (DAYS_PER_FIVE_MONTHS * monthFromMarch + 2)
+                / MONTHS_PER_FIVE + this.day - 1;
+        int dayOfEra = yearOfEra * DAYS_IN_YEAR + yearOfEra / QUADRENNIAL
+                - yearOfEra / CENTENNIAL + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_TO_EPOCH;
+    }
+
+    /**
+     * Creates a Date object from the number of days since 1/1/1970
+     * @param epochDay the day in the format returned by toEpochDay()
+     * @return the date
+     */
+    public static Date fromEpochDay(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return new Date(date.getYear(), date.getMonthValue(),
+                date.getDayOfMonth());
     }
 
     /**
@@ -115,23 +171,29 @@ public class Date implements Comparable<Date> {
      */
     @Override
     public int compareTo(Date date) {
-        if (this.year > date.year) {
-            return GREATER_THAN;
-        }
-        else if (this.year < date.year) {
-            return LESS_THAN;
-        }
-        else {
-            if (this.month > date.month) {
-                return GREATER_THAN;
-            }
-            else if (this.month < date.month) {
-                return LESS_THAN;
-            }
-            else {
-                return Integer.compare(this.day, date.day);
-            }
+        return Integer.compare(this.packed, date.packed);
+    }
+
+    /**
+     * Checks if this date is equal to the specified object
+     * @param  obj the specified object
+     * @return true if same year, month, and day, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof Date) {
+            return this.packed == ((Date) obj).packed;
         }
+        return false;
+    }
+
+    /**
+     * Returns a hash code consistent with equals()
+     * @return the packed date
+     */
+    @Override
+    public int hashCode() {
+        return this.packed;
     }
 
     /**
@@ -139,14 +201,18 @@ public class Date implements Comparable<Date> {
      * @return true if future date, false otherwise
      */
     public boolean isFutureDate() {
-        int todayYear = Calendar.getInstance().get(Calendar.YEAR);
-        int todayMonth = Calendar.getInstance().get(Calendar.MONTH)
-                + CALENDAR_MONTH_OFFSET;
-        int todayDay = Calendar.getInstance().get(Calendar.DATE);
-        Date today = new Date(todayYear, todayMonth, todayDay);
+        return isFutureDate(EventClock.system());
+    }
 
+    /**
+     * Checks whether the event date is after today's date on the
+     * specified clock
+     * @param clock the clock supplying today's date
+     * @return true if future date, false otherwise
+     */
+    public boolean isFutureDate(EventClock clock) {
         // event date is in the future
-        return this.compareTo(today) > 0;
+        return this.compareTo(clock.today()) > 0;
     }
 
     /**
@@ -154,21 +220,18 @@ public class Date implements Comparable<Date> {
      * @return true if this date is within 6 months, false otherwise
      */
     public boolean isWithinSixMonths() {
-        int todayYear = Calendar.getInstance().get(Calendar.YEAR);
-        int todayMonth = Calendar.getInstance().get(Calendar.MONTH)
-                + CALENDAR_MONTH_OFFSET;
-        int todayDay = Calendar.getInstance().get(Calendar.DATE);
-
-        int maxYear = todayYear, maxDay = todayDay;
-        int maxMonth = (todayMonth + MAX_EVENT_MONTH_RANGE);
-        if (maxMonth > MONTHS_IN_YEAR) {
-            ++maxYear;
-            maxMonth -= MONTHS_IN_YEAR;
-        }
-        Date maxDateForEvent = new Date(maxYear, maxMonth, maxDay);
+        return isWithinSixMonths(EventClock.system());
+    }
 
+    /**
+     * Checks whether the event date is within six months of today's date
+     * on the specified clock
+     * @param clock the clock supplying today's date
+     * @return true if this date is within 6 months, false otherwise
+     */
+    public boolean isWithinSixMonths(EventClock clock) {
         // event date is within six months in the future
-        return this.compareTo(maxDateForEvent) <= 0;
+        return this.compareTo(clock.maxEventDate()) <= 0;
     }
 
     /**
@@ -177,7 +240,18 @@ public class Date implements Comparable<Date> {
      */
     @Override
     public String toString() {
-        return "" + this.month + '/' + this.day + '/' + this.year;
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the date to the specified builder without creating
+     * intermediate strings
+     * @param sb the builder the date is appended to
+     * @return the same builder, in format mm/dd/yyyy
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        return sb.append(this.month).append('/').append(this.day)
+                .append('/').append(this.year);
     }
 
     /**
@@ -0,0 +1,136 @@
+package eventorganizer;
+
+/**
+ * Case-insensitive lookup table from token to enum constant, built once
+ * from the constant names so a lookup costs one hash and one compare
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class EnumLookup<E extends Enum<E>> {
+    private final Object[] table; // constants placed by hash of their name
+    private final int mask; // table length - 1, table length a power of 2
+
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int SLOTS_PER_CONSTANT = 4;
+    private static final int CASE_OFFSET = 'a' - 'A';
+
+    /**
+     * Creates a lookup table for the specified constants
+     * @param values the constants of the enum, with upper case names
+     */
+    public EnumLookup(E[] values) {
+        int size = Integer.highestOneBit(
+                Math.max(1, values.length * SLOTS_PER_CONSTANT) - 1) << 1;
+        this.table = new Object[size];
+        this.mask = size - 1;
+        for (E value: values) {
+            String name = value.name();
+            int slot = hash(name) & mask;
+            while (table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = value;
+        }
+    }
+
+    /**
+     * Returns the constant whose name matches the token, ignoring case
+     * @param token the token to look up
+     * @return the matching constant, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public E find(CharSequence token) {
+        for (int slot = hash(token) & mask; table[slot] != null;
+             slot = (slot + 1) & mask) {
+            E value = (E) table[slot];
+            if (matches(value.name(), token)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the constant whose name matches the ASCII bytes of a token,
+     * ignoring case
+     * @param bytes the buffer holding the token
+     * @param start the start of the token
+     * @param length the length of the token
+     * @return the matching constant, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public E find(byte[] bytes, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; ++i) {
+            hash = HASH_MULTIPLIER * hash + toUpperCase(bytes[i]);
+        }
+        for (int slot = hash & mask; table[slot] != null;
+             slot = (slot + 1) & mask) {
+            E value = (E) table[slot];
+            if (matches(value.name(), bytes, start, length)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Computes the hash of a token as if it were in upper case
+     * @param token the token
+     * @return the hash
+     */
+    private static int hash(CharSequence token) {
+        int hash = 0;
+        for (int i = 0; i < token.length(); ++i) {
+            hash = HASH_MULTIPLIER * hash + toUpperCase(token.charAt(i));
+        }
+        return hash;
+    }
+
+    /**
+     * Checks if a token equals an upper case name, ignoring case
+     * @param name the upper case name
+     * @param token the token
+     * @return true if the same characters ignoring case, false otherwise
+     */
+    private static boolean matches(String name, CharSequence token) {
+        if (name.length() != token.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); ++i) {
+            if (name.charAt(i) != toUpperCase(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the bytes of a token equal an upper case name, ignoring case
+     * @param name the upper case name
+     * @param bytes the buffer holding the token
+     * @param start the start of the token
+     * @param length the length of the token
+     * @return true if the same characters ignoring case, false otherwise
+     */
+    private static boolean matches(String name, byte[] bytes, int start,
+                                   int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; ++i) {
+            if (name.charAt(i) != toUpperCase(bytes[start + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts an ASCII lower case letter to upper case
+     * @param c the character
+     * @return the upper case letter, or c if it is not a lower case letter
+     */
+    private static int toUpperCase(int c) {
+        return (c >= 'a' && c <= 'z') ? c - CASE_OFFSET : c;
+    }
+}
@@ -11,6 +11,8 @@ public class Event implements Comparable<Event> {
     private Location location;
     private Contact contact; //include the department name and email
     private int duration; //in minutes
+    private int endHour; //hour of the end time, computed once
+    private int endMinute; //minute of the end time, computed once
 
     private static final int GREATER_THAN = 1;
     private static final int LESS_THAN = -1;
@@ -20,6 +22,9 @@ public class Event implements Comparable<Event> {
     private static final int MINUTES_IN_HOUR = 60;
     private static final int SMALLEST_DOUBLE_DIGIT_NUM = 10;
 
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int RENDERED_LENGTH = 160;
+
     /**
      * Creates an Event object with the specified date, startTime, location,
      * contact, and duration
@@ -36,6 +41,7 @@ public class Event implements Comparable<Event> {
         this.location = location;
         this.contact = contact;
         this.duration = duration;
+        computeEndTime();
     }
 
     /**
@@ -49,6 +55,55 @@ public class Event implements Comparable<Event> {
         this.date = date;
         this.startTime = startTime;
         this.location = location;
+        computeEndTime();
+    }
+
+    /**
+     * Replaces every field of this event, so that one Event can serve as
+     * a reusable view over events stored in another form
+     * @param date the date of the event
+     * @param startTime the start time of the event
+     * @param location the location of the event
+     * @param contact the contact for the event
+     * @param duration the duration of the event
+     */
+    void set(Date date, Timeslot startTime, Location location,
+             Contact contact, int duration) {
+        this.date = date;
+        this.startTime = startTime;
+        this.location = location;
+        this.contact = contact;
+        this.duration = duration;
+        computeEndTime();
+    }
+
+    /**
+     * Computes the end hour and minute from the start time and duration
+     */
+    private void computeEndTime() {
+        if (this.startTime == null) {
+            return;
+        }
+        int end = this.startTime.getHour() * MINUTES_IN_HOUR
+                + this.startTime.getMinute() + this.duration;
+        this.endHour = end / MINUTES_IN_HOUR;
+        this.endMinute = end % MINUTES_IN_HOUR;
+    }
+
+    /**
+     * Returns the date of this event
+     * @return date
+     */
+    public Date getDate() {
+        return this.date;
+    }
+
+    /**
+     * Returns the timeslot this event starts at
+     * @return start time
+     */
+    public Timeslot getStartTime() {
+        return this.startTime;
     }
 
     /**
@@ -59,6 +114,22 @@ public class Event implements Comparable<Event> {
         return this.location;
     }
 
+    /**
+     * Returns the contact for this event
+     * @return contact
+     */
+    public Contact getContact() {
+        return this.contact;
+    }
+
+    /**
+     * Returns the duration of this event
+     * @return duration in minutes
+     */
+    public int getDuration() {
+        return this.duration;
+    }
+
     /**
      * Returns the department that this event takes place in
      * @return department
@@ -76,13 +147,26 @@ public class Event implements Comparable<Event> {
     public boolean equals(Object obj) {
         if (obj instanceof Event) {
             Event event = (Event) obj;
-            return this.date.compareTo(event.date) == EQUAL
+            return this.date.equals(event.date)
                     && this.startTime.equals(event.startTime)
                     && this.location.equals(event.location);
         }
         return false;
     }
 
+    /**
+     * Returns a hash code consistent with equals(), derived from the
+     * date, start time, and location of the event
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        int hash = this.date.hashCode();
+        hash = HASH_MULTIPLIER * hash + this.startTime.ordinal();
+        hash = HASH_MULTIPLIER * hash + this.location.ordinal();
+        return hash;
+    }
+
     /**
      * Returns a string representation of the event
      * @return string version of event in format
@@ -91,31 +175,31 @@ public class Event implements Comparable<Event> {
      */
     @Override
     public String toString() {
-        int endHour = this.startTime.getHour();
-        int endMinute = this.startTime.getMinute();
-        boolean isAM = this.startTime.isAM();
-
-        endMinute += this.duration;
-        while (endMinute >= MINUTES_IN_HOUR) {
-            ++endHour;
-            endMinute -= MINUTES_IN_HOUR;
-            if (endHour >= MAX_HOUR) {
-                isAM = false;
-            }
-        }
-
-        String endTime = endHour + ":";
-        if (endMinute < SMALLEST_DOUBLE_DIGIT_NUM)
-            endTime += "0";
-        endTime += endMinute;
-        endTime += isAM ? "am" : "pm";
+        return appendTo(new StringBuilder(RENDERED_LENGTH)).toString();
+    }
 
-        String output = "[Event Date: " + this.date + "] ";
-        output += "[Start: " + this.startTime + "] ";
-        output += "[End: " + endTime + "] ";
-        output += "@" + this.location + " ";
-        output += "[Contact: " + this.contact + "]";
-        return output;
+    /**
+     * Appends the event to the specified builder without creating
+     * intermediate strings
+     * @param sb the builder the event is appended to
+     * @return the same builder, in the format of toString()
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        boolean isAM = this.startTime.isAM() && this.endHour < MAX_HOUR;
+        sb.append("[Event Date: ");
+        this.date.appendTo(sb).append("] ");
+        sb.append("[Start: ").append(this.startTime).append("] ");
+        sb.append("[End: ").append(this.endHour).append(':');
+        if (this.endMinute < SMALLEST_DOUBLE_DIGIT_NUM)
+            sb.append('0');
+        sb.append(this.endMinute).append(isAM ? "am" : "pm").append("] ");
+        sb.append('@').append(this.location).append(' ');
+        sb.append("[Contact: ");
+        if (this.contact == null)
+            sb.append((Object) null);
+        else
+            this.contact.appendTo(sb);
+        return sb.append(']');
     }
 
     /**
@@ -127,21 +211,17 @@ public class Event implements Comparable<Event> {
      */
     @Override
     public int compareTo(Event event) {
-        if (this.date.compareTo(event.date) > 0) {
+        int order = this.date.compareTo(event.date);
+        if (order == EQUAL) {
+            order = this.startTime.compareTo(event.startTime);
+        }
+        if (order > EQUAL) {
             return GREATER_THAN;
         }
-        else if (this.date.compareTo(event.date) < 0) {
+        else if (order < EQUAL) {
             return LESS_THAN;
         }
-        else {
-            if (this.startTime.compareTo(event.startTime) > 0) {
-                return GREATER_THAN;
-            } else if (this.startTime.compareTo(event.startTime) < 0) {
-                return LESS_THAN;
-            } else {
-                return EQUAL;
-            }
-        }
+        return EQUAL;
     }
 
     /**
@@ -1,25 +1,68 @@
 package eventorganizer;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
 /**
  * Represents an organized list of events
  * @author Jeeva Ramasamy, Parth Patel
  */
-public class EventCalendar {
+public class EventCalendar implements EventStore {
     private Event[] events; // the array holding the list of events
     private int numEvents; // current number of events in the array
+    private int numSlots; // slots in use, including removed (null) slots
+    private HashMap<Event, Integer> index; // event -> position in events
+    private OccupancyMap occupancy; // booked (date, timeslot, location)
+
+    // sorted views kept up to date on add/remove; each bucket holds the
+    // events that tie on the sort key, in insertion order
+    private TreeMap<Event, LinkedHashSet<Event>> byDate;
+    private EnumMap<Location, LinkedHashSet<Event>> byLocation;
+    private EnumMap<Department, LinkedHashSet<Event>> byDepartment;
 
     private static final int NOT_FOUND = -1;
     private static final int INITIAL_CAPACITY = 4;
-    private static final int CAPACITY_INCREASE = 4;
+    private static final int GROWTH_FACTOR = 2;
     private static final int EMPTY = 0;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
 
 
     /**
      * Creates an empty list of events with an initial capacity of 4
      */
     public EventCalendar() {
-        events = new Event[INITIAL_CAPACITY];
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty list of events sized to hold the expected number
+     * of events without growing
+     * @param expectedEvents the number of events expected to be added
+     */
+    public EventCalendar(int expectedEvents) {
+        int capacity = Math.max(expectedEvents, INITIAL_CAPACITY);
+        events = new Event[capacity];
         numEvents = EMPTY;
+        numSlots = EMPTY;
+        index = new HashMap<>((int) (capacity / LOAD_FACTOR) + 1);
+        occupancy = new OccupancyMap();
+        byDate = new TreeMap<>();
+        byLocation = new EnumMap<>(Location.class);
+        byDepartment = new EnumMap<>(Department.class);
     }
 
     /**
@@ -28,45 +71,157 @@ public class EventCalendar {
      * @return the index of event if found, -1 if not found
      */
     private int find(Event event) {
-        for (int i = 0; i < numEvents; ++i) {
-            if (events[i].equals(event)) {
-                return i;
-	    }
+        Integer position = index.get(event);
+        return (position == null) ? NOT_FOUND : position;
+    }
+
+    /**
+     * Rebuilds the index after events have been moved within the array
+     */
+    private void reindex() {
+        index.clear();
+        for (int i = 0; i < numSlots; ++i) {
+            if (events[i] != null) {
+                index.put(events[i], i);
+            }
         }
-        return NOT_FOUND;
     }
 
     /**
-     * Increases the capacity of event list by 4
+     * Doubles the capacity of event list
      */
     private void grow() {
-        Event[] increasedEvents = new Event[numEvents + CAPACITY_INCREASE];
-        for (int i = 0; i < numEvents; ++i) {
-            increasedEvents[i] = events[i];
+        events = Arrays.copyOf(events, events.length * GROWTH_FACTOR);
+    }
+
+    /**
+     * Squeezes out the slots of removed events, keeping the remaining
+     * events in their current order
+     */
+    private void compact() {
+        if (numSlots == numEvents) {
+            return;
+        }
+        int next = 0;
+        for (int i = 0; i < numSlots; ++i) {
+            if (events[i] != null) {
+                events[next] = events[i];
+                ++next;
+            }
+        }
+        Arrays.fill(events, next, numSlots, null);
+        numSlots = next;
+        reindex();
+    }
+
+    /**
+     * Makes room for one more event at the end of the list, reclaiming
+     * removed slots when at least half of the list is removed slots
+     */
+    private void ensureCapacity() {
+        if (numSlots < events.length) {
+            return;
+        }
+        if (numSlots - numEvents >= numSlots / GROWTH_FACTOR) {
+            compact();
+        }
+        else {
+            grow();
+        }
+    }
+
+    /**
+     * Makes room for the specified number of events at once, reclaiming
+     * removed slots first and resizing the array and the index only once
+     * @param capacity the number of slots needed
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= events.length) {
+            return;
+        }
+        compact();
+        if (capacity > events.length) {
+            events = Arrays.copyOf(events,
+                    Math.max(capacity, events.length * GROWTH_FACTOR));
+            HashMap<Event, Integer> larger =
+                    new HashMap<>((int) (capacity / LOAD_FACTOR) + 1);
+            larger.putAll(index);
+            index = larger;
         }
-        events = increasedEvents;
+    }
+
+    /**
+     * Adds an event to the date, location, and department views
+     * @param event the event that was added to the list
+     */
+    private void addToViews(Event event) {
+        byDate.computeIfAbsent(event, key -> new LinkedHashSet<>())
+                .add(event);
+        byLocation.computeIfAbsent(event.getLocation(),
+                key -> new LinkedHashSet<>()).add(event);
+        byDepartment.computeIfAbsent(event.getDepartment(),
+                key -> new LinkedHashSet<>()).add(event);
+    }
+
+    /**
+     * Removes an event from the date, location, and department views
+     * @param event the event stored in the list that is being removed
+     */
+    private void removeFromViews(Event event) {
+        LinkedHashSet<Event> bucket = byDate.get(event);
+        bucket.remove(event);
+        if (bucket.isEmpty()) {
+            byDate.remove(event);
+        }
+        byLocation.get(event.getLocation()).remove(event);
+        byDepartment.get(event.getDepartment()).remove(event);
     }
 
     /**
      * Adds an event to the end of the list and grows as needed
      * @param  event the event to be added
-     * @return true if event is successfully added
+     * @return true if event is successfully added,
+     *         false if the event is already in the list
      */
+    @Override
     public boolean add(Event event) {
-        if (numEvents == events.length) {
-            grow();
+        if (!occupancy.occupy(event.getDate(), event.getStartTime(),
+                event.getLocation())) {
+            return false;
         }
-        events[numEvents] = event;
+        ensureCapacity();
+        index.put(event, numSlots);
+        events[numSlots] = event;
+        ++numSlots;
         ++numEvents;
+        addToViews(event);
         return true;
     }
 
+    /**
+     * Adds a batch of events in order, skipping each event whose date,
+     * timeslot, and location is already booked, whether by the calendar
+     * or by an earlier event in the batch
+     * Storage is sized for the whole batch up front instead of growing
+     * as the events are added
+     * @param  batch the events to be added
+     * @return for each event in the batch, true if it was added,
+     *         false if it was already booked
+     */
+    @Override
+    public boolean[] addAll(List<Event> batch) {
+        ensureCapacity(numSlots + batch.size());
+        return EventStore.super.addAll(batch);
+    }
+
     /**
      * Deletes the specified event from the list if it exists
+     * The slot is left empty and reclaimed later, so no events are shifted
      * @param  event the event to be deleted
      * @return true if event is successfully deleted,
      *         false if event is not found in list
      */
+    @Override
     public boolean remove(Event event) {
         if (numEvents == EMPTY) {
             return false;
@@ -77,12 +232,15 @@ public class EventCalendar {
             return false;
         }
 
-        for (int i = indexOfEvent; i < numEvents - 1; ++i) {
-            events[i] = events[i + 1];
-        }
-
+        index.remove(events[indexOfEvent]);
+        occupancy.release(event.getDate(), event.getStartTime(),
+                event.getLocation());
+        removeFromViews(events[indexOfEvent]);
+        events[indexOfEvent] = null;
         --numEvents;
-        events[numEvents] = null;
+        while (numSlots > EMPTY && events[numSlots - 1] == null) {
+            --numSlots;
+        }
 
         return true;
     }
@@ -92,101 +250,261 @@ public class EventCalendar {
      * @param  event the event to be searched
      * @return true if list contains specified event, false if not
      */
+    @Override
     public boolean contains(Event event) {
-        for (int i = 0; i < numEvents; ++i) {
-            if (events[i].equals(event)) {
-                return true;
-            }
+        return occupancy.isOccupied(event.getDate(), event.getStartTime(),
+                event.getLocation());
+    }
+
+    /**
+     * Returns the locations that have no event on a date at a timeslot
+     * @param date the date
+     * @param timeslot the timeslot
+     * @return the free locations
+     */
+    public EnumSet<Location> freeLocations(Date date, Timeslot timeslot) {
+        return occupancy.freeLocations(date, timeslot);
+    }
+
+    /**
+     * Finds the earliest date and timeslot at which a location has no
+     * event, between two dates
+     * @param location the location
+     * @param from the first date to check
+     * @param to the last date to check
+     * @return an event holding the free date, timeslot, and location,
+     *         or null if the location is booked throughout the range
+     */
+    public Event firstFreeSlot(Location location, Date from, Date to) {
+        return occupancy.firstFreeSlot(location, from, to);
+    }
+
+    /**
+     * Finds the earliest date and timeslot at which any of the specified
+     * locations has no event, between two dates
+     * @param locations the acceptable locations
+     * @param from the first date to check
+     * @param to the last date to check
+     * @return an event holding the free date, timeslot, and location,
+     *         or null if every location is booked throughout the range
+     */
+    public Event firstFreeSlot(Set<Location> locations, Date from, Date to) {
+        return occupancy.firstFreeSlot(locations, from, to);
+    }
+
+    /**
+     * Returns all events in insertion order
+     * The stream reads the calendar lazily, so the calendar must not be
+     * changed while it is being consumed
+     * @return the events
+     */
+    public Stream<Event> events() {
+        return Arrays.stream(events, 0, numSlots).filter(Objects::nonNull);
+    }
+
+    /**
+     * Returns the number of events in the calendar
+     * @return number of events
+     */
+    public int size() {
+        return numEvents;
+    }
+
+    /**
+     * Returns the events from one date through another, ordered by date
+     * and timeslot
+     * The stream reads the calendar lazily, so the calendar must not be
+     * changed while it is being consumed
+     * @param from the first date, inclusive
+     * @param to the last date, inclusive
+     * @return the events in the date range
+     */
+    public Stream<Event> eventsBetween(Date from, Date to) {
+        if (from.compareTo(to) > 0) {
+            return Stream.empty();
         }
-        return false;
+        Event first = new Event(from, TIMESLOTS[0], null);
+        Event last = new Event(to, TIMESLOTS[TIMESLOTS.length - 1], null);
+        return byDate.subMap(first, true, last, true).values().stream()
+                .flatMap(LinkedHashSet::stream);
+    }
+
+    /**
+     * Returns the events at a location, in insertion order
+     * @param location the location
+     * @return the events at the location
+     */
+    public Stream<Event> eventsAt(Location location) {
+        return bucket(byLocation, location);
+    }
+
+    /**
+     * Returns the events on a campus, ordered by building/room and then
+     * insertion order
+     * @param campus the campus name, ignoring case
+     * @return the events on the campus
+     */
+    public Stream<Event> eventsAtCampus(String campus) {
+        return byLocation.entrySet().stream()
+                .filter(e -> e.getKey().getCampus().equalsIgnoreCase(campus))
+                .flatMap(e -> e.getValue().stream());
+    }
+
+    /**
+     * Returns the events of a department, in insertion order
+     * @param department the department
+     * @return the events of the department
+     */
+    public Stream<Event> eventsFor(Department department) {
+        return bucket(byDepartment, department);
+    }
+
+    /**
+     * Helper method used to stream one bucket of a view
+     * @param view the view
+     * @param key the key of the bucket
+     * @return the events in the bucket, or an empty stream if none
+     */
+    private static <K> Stream<Event> bucket(
+            Map<K, LinkedHashSet<Event>> view, K key) {
+        LinkedHashSet<Event> bucket = view.get(key);
+        return (bucket == null) ? Stream.empty() : bucket.stream();
     }
 
     /**
      * Prints the array of events in its current order
      */
     public void print() {
+        print(ReportWriter.console());
+    }
+
+    /**
+     * Writes the array of events in its current order to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void print(ReportWriter out) {
         if (numEvents == EMPTY) {
-            System.out.println("Event calendar is empty!");
+            out.println("Event calendar is empty!");
+            out.flush();
             return;
         }
-        System.out.println("* Event calendar *");
-        printEvents();
-        System.out.println("* end of event calendar *");
+        out.println("* Event calendar *");
+        List<Event> slots = Arrays.asList(events).subList(0, numSlots);
+        out.printlnAll(inOrder(Collections.singletonList(slots)));
+        out.println("* end of event calendar *");
+        out.flush();
     }
 
     /**
      * Prints the array of events ordered by date and timeslot
      */
     public void printByDate() {
-        if (numEvents == EMPTY) {
-            System.out.println("Event calendar is empty!");
-            return;
-        }
-        for (int i = 1; i < numEvents; ++i) {
-            Event key = events[i];
-            int j = i - 1;
-            while (j >= 0 && events[j].compareTo(key) > 0) {
-                events[j + 1] = events[j];
-                --j;
-            }
-            events[j + 1] = key;
-        }
-        System.out.println("* Event calendar by event date"
-                + " and start time *");
-        printEvents();
-        System.out.println("* end of event calendar *");
+        printByDate(ReportWriter.console());
+    }
+
+    /**
+     * Writes the array of events ordered by date and timeslot to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByDate(ReportWriter out) {
+        printView(out, "* Event calendar by event date and start time *",
+                byDate.values());
     }
 
     /**
      * Prints the array of events ordered by campus and building/room
      */
     public void printByCampus() {
-        if (numEvents == EMPTY) {
-            System.out.println("Event calendar is empty!");
-            return;
-        }
-        for (int i = 1; i < numEvents; ++i) {
-            Event key = events[i];
-            int j = i - 1;
-            while (j >= 0 && events[j].getLocation().compareTo(key.getLocation()) > 0) {
-                events[j + 1] = events[j];
-                --j;
-            }
-            events[j + 1] = key;
-        }
-        System.out.println("* Event calendar by campus and building *");
-        printEvents();
-        System.out.println("* end of event calendar *");
+        printByCampus(ReportWriter.console());
+    }
+
+    /**
+     * Writes the array of events ordered by campus and building/room
+     * to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByCampus(ReportWriter out) {
+        printView(out, "* Event calendar by campus and building *",
+                byLocation.values());
     }
 
     /**
      * Prints the array of events ordered by department
      */
     public void printByDepartment() {
-        if (numEvents == EMPTY) {
-            System.out.println("Event calendar is empty!");
-            return;
-        }
-        for (int i = 1; i < numEvents; ++i) {
-            Event key = events[i];
-            int j = i - 1;
-            while (j >= 0 && events[j].getDepartment().compareTo(key.getDepartment()) > 0) {
-                events[j + 1] = events[j];
-                --j;
+        printByDepartment(ReportWriter.console());
+    }
+
+    /**
+     * Writes the array of events ordered by department to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByDepartment(ReportWriter out) {
+        printView(out, "* Event calendar by department *",
+                byDepartment.values());
+    }
+
+    /**
+     * Helper method used to iterate over the events in a run of groups,
+     * in order, skipping the empty slots of removed events
+     * @param groups the groups of events
+     * @return an iterator over the events
+     */
+    private static Iterator<Event> inOrder(
+            Collection<? extends Iterable<Event>> groups) {
+        Iterator<? extends Iterable<Event>> outer = groups.iterator();
+        return new Iterator<>() {
+            private Iterator<Event> inner = Collections.emptyIterator();
+            private Event next; // the next event, or null if not found yet
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    if (inner.hasNext()) {
+                        next = inner.next();
+                    }
+                    else if (outer.hasNext()) {
+                        inner = outer.next().iterator();
+                    }
+                    else {
+                        return false;
+                    }
+                }
+                return true;
             }
-            events[j + 1] = key;
-        }
-        System.out.println("* Event calendar by department *");
-        printEvents();
-        System.out.println("* end of event calendar *");
+
+            @Override
+            public Event next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Event event = next;
+                next = null;
+                return event;
+            }
+        };
     }
 
     /**
-     * Helper method used to print events
+     * Helper method used to write the buckets of a sorted view, in order
+     * @param out the report the events are written to
+     * @param header the line written before the events
+     * @param buckets the buckets of the sorted view
      */
-    private void printEvents() {
-        for (int i = 0; i < numEvents; ++i) {
-            System.out.println(events[i]);
+    private void printView(ReportWriter out, String header,
+                           Collection<LinkedHashSet<Event>> buckets) {
+        if (numEvents == EMPTY) {
+            out.println("Event calendar is empty!");
+            out.flush();
+            return;
         }
+        out.println(header);
+        out.printlnAll(inOrder(buckets));
+        out.println("* end of event calendar *");
+        out.flush();
     }
 }
@@ -0,0 +1,112 @@
+package eventorganizer;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Supplies today's date and the latest date an event may be scheduled on,
+ * recomputing them only when the day changes
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class EventClock {
+    private final Clock clock; // source of the current time
+    private volatile Window window; // today and the scheduling horizon
+
+    private static final int MAX_EVENT_MONTH_RANGE = 6;
+
+    private static final EventClock SYSTEM = new EventClock();
+
+    /**
+     * Creates an EventClock that follows the system clock in the default
+     * time zone
+     */
+    public EventClock() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates an EventClock that follows the specified clock, for example
+     * a fixed clock to pin "today"
+     * @param clock the clock to read the current time from
+     */
+    public EventClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the shared clock that follows the system clock
+     * @return system event clock
+     */
+    public static EventClock system() {
+        return SYSTEM;
+    }
+
+    /**
+     * Returns a clock pinned at the current instant, so that a batch of
+     * validations all see the same day without reading the time again
+     * @return the pinned clock
+     */
+    public EventClock pinned() {
+        return new EventClock(Clock.fixed(clock.instant(), clock.getZone()));
+    }
+
+    /**
+     * Returns today's date
+     * @return today
+     */
+    public Date today() {
+        return current().today;
+    }
+
+    /**
+     * Returns the latest date an event may be scheduled on, six months
+     * from today
+     * @return the last day within six months of today
+     */
+    public Date maxEventDate() {
+        return current().maxEventDate;
+    }
+
+    /**
+     * Returns the window for the current day, recomputing it only if the
+     * day has changed since it was last computed
+     * @return the current window
+     */
+    private Window current() {
+        Window current = this.window;
+        if (current == null || clock.millis() >= current.expiresAt) {
+            current = new Window(clock);
+            this.window = current;
+        }
+        return current;
+    }
+
+    /**
+     * Today's date and the scheduling horizon for one day
+     */
+    private static class Window {
+        private final Date today;
+        private final Date maxEventDate;
+        private final long expiresAt; // millis at the start of tomorrow
+
+        /**
+         * Computes the window for the current day of the specified clock
+         * @param clock the clock to read the current time from
+         */
+        Window(Clock clock) {
+            LocalDate date = LocalDate.now(clock);
+            int year = date.getYear();
+            int month = date.getMonthValue();
+            int day = date.getDayOfMonth();
+            this.today = new Date(year, month, day);
+
+            // a day past the end of the sixth month is clamped to its last
+            // day, so the horizon is a valid date the scheduler can use
+            LocalDate max = date.plusMonths(MAX_EVENT_MONTH_RANGE);
+            this.maxEventDate = new Date(max.getYear(), max.getMonthValue(),
+                    max.getDayOfMonth());
+            this.expiresAt = date.plusDays(1).atStartOfDay(clock.getZone())
+                    .toInstant().toEpochMilli();
+        }
+    }
+}
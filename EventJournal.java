@@ -0,0 +1,719 @@
+package eventorganizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the events added to and removed from a calendar
+ * Records are collected in memory and written and synced to disk once
+ * per batch: when the batch holds a set number of records, or when its
+ * oldest record has waited for the group commit window, whichever is
+ * first; a record is durable once its batch has been synced
+ * Appending only buffers a record; the appender then calls
+ * awaitDurable(), which blocks until the record's batch is synced, so
+ * every appender whose record is in the batch shares one fsync, and new
+ * records collect in a second buffer while the batch is being written
+ * This holds for a lone appender too: its record waits out the window,
+ * unless the batch fills first, so a fast single session still syncs
+ * once per batch rather than once per record
+ * Each record is its payload length, a CRC32 of the payload, and the
+ * payload, so a record torn by a crash is detected and dropped on replay
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class EventJournal implements Closeable {
+    private final FileChannel channel; // the journal file, appended to
+    private final int batchSize; // records per group commit
+    private final long windowNanos; // longest a record waits to be synced
+    private final Thread syncer; // syncs batches whose window has passed
+    private final CRC32 crc = new CRC32(); // checksums records
+    private ByteBuffer buffer; // records not yet written to the file
+    private ByteBuffer spare; // buffer to swap in while a batch is written
+    private int pending; // number of records in buffer
+    private int recordStart; // buffer position of the record being built
+    private long batchStarted; // when the oldest pending record arrived
+    private long appended; // number of records appended
+    private long synced; // number of records appended and synced
+    private long length; // length of the journal, including pending
+    private boolean flushing; // true while a batch is written and synced
+    private IOException failure; // set if a sync failed
+    private boolean isClosed;
+
+    private static final byte ADD = 'A';
+    private static final byte REMOVE = 'R';
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int SLOT_SIZE = Byte.BYTES + Integer.BYTES
+            + 2 * Byte.BYTES;
+    private static final int CONTACT_SIZE = Byte.BYTES + 2 * Short.BYTES;
+    private static final int MAX_EMAIL_LENGTH = 0xFFFF;
+    private static final int MAX_RECORD_SIZE = SLOT_SIZE + CONTACT_SIZE
+            + MAX_EMAIL_LENGTH;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int TEST_EVENTS = 5;
+    private static final long TEST_WINDOW_MILLIS = 100;
+
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Department[] DEPARTMENTS = Department.values();
+
+    /**
+     * Opens a journal for appending, discarding anything after the last
+     * complete record
+     * @param path the journal file, created if it does not exist
+     * @param validLength the length of the complete records, as returned
+     *                    by replay()
+     * @param batchSize records per group commit; 1 syncs every record
+     * @param windowMillis longest a record waits to be synced
+     * @throws IOException if the file cannot be opened
+     */
+    public EventJournal(Path path, long validLength, int batchSize,
+                        long windowMillis) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        this.batchSize = Math.max(batchSize, 1);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.length = validLength;
+        this.syncer = new Thread(this::syncPeriodically, "event-journal");
+        syncer.setDaemon(true);
+        syncer.start();
+    }
+
+    /**
+     * Applies the records in a journal file to a calendar, in order
+     * Replay stops at the first incomplete or corrupt record
+     * @param path the journal file; nothing is applied if it is missing
+     * @param calendar the calendar the records are applied to
+     * @return the length of the complete records in the file
+     * @throws IOException if the file cannot be read
+     */
+    public static long replay(Path path, EventCalendar calendar)
+            throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel in = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            long size = Math.min(in.size(), Integer.MAX_VALUE);
+            MappedByteBuffer records = in.map(FileChannel.MapMode.READ_ONLY,
+                    0, size);
+            CRC32 crc = new CRC32();
+            while (records.remaining() >= RECORD_HEADER_SIZE) {
+                int start = records.position();
+                int length = records.getInt();
+                int checksum = records.getInt();
+                if (length < SLOT_SIZE || length > MAX_RECORD_SIZE
+                        || length > records.remaining()) {
+                    return start;
+                }
+                ByteBuffer payload = records.slice().limit(length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum || !apply(payload,
+                        calendar)) {
+                    return start;
+                }
+                records.position(start + RECORD_HEADER_SIZE + length);
+            }
+            return records.position();
+        }
+    }
+
+    /**
+     * Records that an event was added; the record is durable once
+     * awaitDurable() returns for it
+     * @param event the event added
+     * @return the number of the record, to pass to awaitDurable()
+     */
+    public synchronized long appendAdd(Event event) {
+        Contact contact = event.getContact();
+        byte[] email = contact.getEmail().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = startRecord(ADD, event,
+                CONTACT_SIZE + email.length);
+        record.put((byte) contact.getDepartment().ordinal())
+                .putShort((short) event.getDuration())
+                .putShort((short) email.length).put(email);
+        return endRecord();
+    }
+
+    /**
+     * Records that an event was removed; the record is durable once
+     * awaitDurable() returns for it
+     * @param event the event removed
+     * @return the number of the record, to pass to awaitDurable()
+     */
+    public synchronized long appendRemove(Event event) {
+        startRecord(REMOVE, event, 0);
+        return endRecord();
+    }
+
+    /**
+     * Blocks until a record has been synced to disk, along with the rest
+     * of its batch; the caller must not hold a lock other appenders need
+     * If the record fills its batch, the caller writes and syncs the
+     * batch itself instead of waiting for the window to pass
+     * @param record the number of the record, as returned on appending
+     * @throws UncheckedIOException if the batch cannot be written, or
+     *         the thread is interrupted while waiting
+     */
+    public void awaitDurable(long record) {
+        awaitSynced(record, false);
+    }
+
+    /**
+     * Writes the pending records to the file and syncs it
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public void sync() {
+        long record;
+        synchronized (this) {
+            record = appended;
+        }
+        awaitSynced(record, true);
+    }
+
+    /**
+     * Returns the length of the journal, including pending records
+     * @return length in bytes
+     */
+    public synchronized long size() {
+        return length;
+    }
+
+    /**
+     * Discards every record, pending or written; pending records count
+     * as synced, so their appenders stop waiting
+     * @throws UncheckedIOException if the file cannot be truncated
+     */
+    public synchronized void truncate() {
+        checkFailure();
+        try {
+            while (flushing) {
+                wait();
+            }
+            buffer.clear();
+            pending = 0;
+            synced = appended;
+            length = 0;
+            notifyAll();
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Syncs the pending records and closes the journal
+     * @throws IOException if the file cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            notifyAll();
+        }
+        syncer.interrupt();
+        try {
+            sync();
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Starts a record in the buffer and writes the event's slot
+     * @param op ADD or REMOVE
+     * @param event the event
+     * @param extra payload bytes to follow the slot
+     * @return the buffer, positioned after the slot
+     */
+    private ByteBuffer startRecord(byte op, Event event, int extra) {
+        checkFailure();
+        if (isClosed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        int length = SLOT_SIZE + extra;
+        if (buffer.remaining() < RECORD_HEADER_SIZE + length) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(
+                    2 * buffer.capacity(),
+                    buffer.position() + RECORD_HEADER_SIZE + length));
+            buffer.flip();
+            buffer = larger.put(buffer);
+        }
+        recordStart = buffer.position();
+        buffer.putInt(length).putInt(0);
+        return buffer.put(op).putInt(event.getDate().getPacked())
+                .put((byte) event.getStartTime().ordinal())
+                .put((byte) event.getLocation().ordinal());
+    }
+
+    /**
+     * Fills in the checksum of the record just written to the buffer and
+     * counts it
+     * @return the number of the record
+     */
+    private long endRecord() {
+        ByteBuffer payload = buffer.duplicate();
+        payload.flip().position(recordStart + RECORD_HEADER_SIZE);
+        crc.reset();
+        crc.update(payload);
+        buffer.putInt(recordStart + Integer.BYTES, (int) crc.getValue());
+        length += buffer.position() - recordStart;
+
+        if (pending++ == 0) {
+            batchStarted = System.nanoTime();
+            notifyAll();
+        }
+        return ++appended;
+    }
+
+    /**
+     * Blocks until a record has been synced, writing and syncing the
+     * pending records itself when they are due and no other thread is
+     * @param record the number of the record
+     * @param now true to sync the pending records without waiting for
+     *            the batch to fill
+     * @throws UncheckedIOException if the records cannot be written, or
+     *         the thread is interrupted while waiting
+     */
+    private void awaitSynced(long record, boolean now) {
+        try {
+            while (true) {
+                synchronized (this) {
+                    checkFailure();
+                    if (synced >= record) {
+                        return;
+                    }
+                    if (flushing || (!now && pending < batchSize)) {
+                        wait();
+                        continue;
+                    }
+                }
+                flush();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes and syncs the pending records unless another thread is
+     * already doing so; the caller does not hold the lock, so records
+     * keep being appended to a fresh buffer meanwhile
+     * @throws IOException if the file cannot be written
+     */
+    private void flush() throws IOException {
+        ByteBuffer batch;
+        long batchEnd;
+        synchronized (this) {
+            if (flushing || pending == 0) {
+                return;
+            }
+            batch = buffer;
+            buffer = (spare != null) ? spare
+                    : ByteBuffer.allocate(BUFFER_SIZE);
+            spare = null;
+            batchEnd = appended;
+            pending = 0;
+            flushing = true;
+        }
+        boolean isSynced = false;
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+            isSynced = true;
+        }
+        catch (IOException e) {
+            synchronized (this) {
+                failure = e;
+            }
+            throw e;
+        }
+        finally {
+            synchronized (this) {
+                flushing = false;
+                if (isSynced) {
+                    synced = Math.max(synced, batchEnd);
+                }
+                spare = batch.clear();
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Runs on the syncer thread: syncs each batch once its window passes
+     */
+    private void syncPeriodically() {
+        try {
+            while (true) {
+                synchronized (this) {
+                    while (!isClosed && (pending == 0 || flushing
+                            || System.nanoTime() - batchStarted
+                            < windowNanos)) {
+                        if (pending == 0 || flushing) {
+                            wait();
+                        }
+                        else {
+                            TimeUnit.NANOSECONDS.timedWait(this, windowNanos
+                                    - (System.nanoTime() - batchStarted));
+                        }
+                    }
+                    if (isClosed) {
+                        return;
+                    }
+                }
+                flush();
+            }
+        }
+        catch (InterruptedException | IOException e) {
+            // closed, or the failure was recorded for the appenders
+        }
+    }
+
+    /**
+     * Rethrows a failure from an earlier sync
+     * @throws UncheckedIOException if a sync failed
+     */
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    /**
+     * Applies one record to a calendar
+     * @param payload the record's payload
+     * @param calendar the calendar the record is applied to
+     * @return true if the record was well formed, false otherwise
+     */
+    private static boolean apply(ByteBuffer payload, EventCalendar calendar) {
+        byte op = payload.get();
+        Date date = Date.fromPacked(payload.getInt());
+        int timeslot = payload.get();
+        int location = payload.get();
+        if (timeslot < 0 || timeslot >= TIMESLOTS.length || location < 0
+                || location >= LOCATIONS.length) {
+            return false;
+        }
+        if (op == REMOVE) {
+            calendar.remove(new Event(date, TIMESLOTS[timeslot],
+                    LOCATIONS[location]));
+            return true;
+        }
+        if (op != ADD || payload.remaining() < CONTACT_SIZE) {
+            return false;
+        }
+        int department = payload.get();
+        int duration = payload.getShort();
+        byte[] email = new byte[payload.getShort() & MAX_EMAIL_LENGTH];
+        if (department < 0 || department >= DEPARTMENTS.length
+                || email.length != payload.remaining()) {
+            return false;
+        }
+        payload.get(email);
+        Contact contact = ContactRegistry.shared().intern(
+                DEPARTMENTS[department],
+                new String(email, StandardCharsets.UTF_8));
+        calendar.add(new Event(date, TIMESLOTS[timeslot],
+                LOCATIONS[location], contact, duration));
+        return true;
+    }
+
+    /**
+     * Test case #1
+     * Tests if every record of a cleanly closed journal is replayed
+     * @throws IOException if the test journal cannot be written or read
+     */
+    private static void testCleanReplay() throws IOException {
+        System.out.println("** Test case #1: every record of a closed "
+                + "journal is replayed");
+        Path path = Files.createTempFile("journal", ".log");
+        try {
+            try (EventJournal journal = new EventJournal(path, 0, 1, 1)) {
+                for (int i = 0; i < TEST_EVENTS; ++i) {
+                    journal.awaitDurable(journal.appendAdd(testEvent(i)));
+                }
+                journal.awaitDurable(journal.appendRemove(testEvent(0)));
+            }
+            testReplay(TEST_EVENTS + " adds, 1 remove", path,
+                    TEST_EVENTS - 1, Files.size(path));
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Test case #2
+     * Tests if a record torn by a crash is dropped on replay
+     * @throws IOException if the test journal cannot be written or read
+     */
+    private static void testTornTail() throws IOException {
+        System.out.println("** Test case #2: a torn last record is "
+                + "dropped");
+        Path path = Files.createTempFile("journal", ".log");
+        try {
+            long lastStart = writeTestJournal(path);
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.WRITE)) {
+                channel.truncate(lastStart + RECORD_HEADER_SIZE + 1);
+            }
+            testReplay(TEST_EVENTS + " adds, last one torn", path,
+                    TEST_EVENTS - 1, lastStart);
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Test case #3
+     * Tests if a record whose payload does not match its CRC is dropped
+     * on replay
+     * @throws IOException if the test journal cannot be written or read
+     */
+    private static void testBadChecksumTail() throws IOException {
+        System.out.println("** Test case #3: a last record failing its "
+                + "CRC is dropped");
+        Path path = Files.createTempFile("journal", ".log");
+        try {
+            long lastStart = writeTestJournal(path);
+            corrupt(path, Files.size(path) - 1);
+            testReplay(TEST_EVENTS + " adds, last one corrupt", path,
+                    TEST_EVENTS - 1, lastStart);
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Test case #4
+     * Tests if replay stops at a corrupt record instead of skipping it
+     * @throws IOException if the test journal cannot be written or read
+     */
+    private static void testBadChecksumMiddle() throws IOException {
+        System.out.println("** Test case #4: replay stops at a corrupt "
+                + "record in the middle");
+        Path path = Files.createTempFile("journal", ".log");
+        try {
+            long secondStart;
+            try (EventJournal journal = new EventJournal(path, 0, 1, 1)) {
+                journal.awaitDurable(journal.appendAdd(testEvent(0)));
+                secondStart = journal.size();
+                for (int i = 1; i < TEST_EVENTS; ++i) {
+                    journal.awaitDurable(journal.appendAdd(testEvent(i)));
+                }
+            }
+            corrupt(path, secondStart + RECORD_HEADER_SIZE);
+            testReplay(TEST_EVENTS + " adds, second one corrupt", path, 1,
+                    secondStart);
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Test case #5
+     * Tests if a journal reopened after a torn record discards it, so
+     * records appended afterwards are replayed
+     * @throws IOException if the test journal cannot be written or read
+     */
+    private static void testAppendAfterTornTail() throws IOException {
+        System.out.println("** Test case #5: records appended after a "
+                + "torn record are replayed");
+        Path path = Files.createTempFile("journal", ".log");
+        try {
+            long lastStart = writeTestJournal(path);
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.WRITE)) {
+                channel.truncate(lastStart + RECORD_HEADER_SIZE + 1);
+            }
+            long validLength = replay(path, new EventCalendar());
+            try (EventJournal journal = new EventJournal(path, validLength,
+                    1, 1)) {
+                journal.awaitDurable(journal.appendAdd(
+                        testEvent(TEST_EVENTS)));
+            }
+            testReplay(TEST_EVENTS + " adds, last one torn, 1 more add",
+                    path, TEST_EVENTS, Files.size(path));
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Test case #6
+     * Tests if the record of a lone appender waits out the window rather
+     * than being synced at once
+     * @throws IOException if the test journal cannot be written
+     */
+    private static void testLoneAppenderWaits() throws IOException {
+        System.out.println("** Test case #6: a lone appender's record is "
+                + "synced once the window passes");
+        Path path = Files.createTempFile("journal", ".log");
+        try (EventJournal journal = new EventJournal(path, 0,
+                TEST_EVENTS, TEST_WINDOW_MILLIS)) {
+            long started = System.nanoTime();
+            journal.awaitDurable(journal.appendAdd(testEvent(0)));
+            long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime()
+                    - started);
+            Testbed.printResult("1 add, batches of " + TEST_EVENTS + " or "
+                    + TEST_WINDOW_MILLIS + " ms", true,
+                    waited >= TEST_WINDOW_MILLIS);
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Test case #7
+     * Tests if a lone appender that fills a batch syncs it without
+     * waiting for the window
+     * @throws IOException if the test journal cannot be written
+     */
+    private static void testLoneAppenderFillsBatch() throws IOException {
+        System.out.println("** Test case #7: a lone appender's full batch "
+                + "is synced at once");
+        Path path = Files.createTempFile("journal", ".log");
+        try (EventJournal journal = new EventJournal(path, 0,
+                TEST_EVENTS, TimeUnit.MINUTES.toMillis(1))) {
+            long started = System.nanoTime();
+            long record = 0;
+            for (int i = 0; i < TEST_EVENTS; ++i) {
+                record = journal.appendAdd(testEvent(i));
+            }
+            journal.awaitDurable(record);
+            long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime()
+                    - started);
+            Testbed.printResult(TEST_EVENTS + " adds, batches of "
+                    + TEST_EVENTS + " or 1 minute", true,
+                    waited < TEST_WINDOW_MILLIS);
+        }
+        finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Writes a journal of TEST_EVENTS adds and closes it
+     * @param path the journal file
+     * @return the offset the last record starts at
+     * @throws IOException if the journal cannot be written
+     */
+    private static long writeTestJournal(Path path) throws IOException {
+        long lastStart = 0;
+        try (EventJournal journal = new EventJournal(path, 0, 1, 1)) {
+            for (int i = 0; i < TEST_EVENTS; ++i) {
+                lastStart = journal.size();
+                journal.awaitDurable(journal.appendAdd(testEvent(i)));
+            }
+        }
+        return lastStart;
+    }
+
+    /**
+     * Flips the bits of one byte of a file
+     * @param path the file
+     * @param position the offset of the byte
+     * @throws IOException if the file cannot be read or written
+     */
+    private static void corrupt(Path path, long position)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, position);
+            one.put(0, (byte) ~one.get(0)).rewind();
+            channel.write(one, position);
+        }
+    }
+
+    /**
+     * Replays a journal into an empty calendar and prints whether the
+     * number of events and the valid length are as expected
+     * @param input the journal being tested
+     * @param path the journal file
+     * @param expectedEvents the events the calendar should hold
+     * @param expectedLength the valid length replay should return
+     * @throws IOException if the journal cannot be read
+     */
+    private static void testReplay(String input, Path path,
+                                   int expectedEvents, long expectedLength)
+            throws IOException {
+        EventCalendar calendar = new EventCalendar();
+        long length = replay(path, calendar);
+        Testbed.printResult(input, expectedEvents + " events, " + expectedLength
+                + " bytes", calendar.size() + " events, " + length
+                + " bytes");
+    }
+
+    /**
+     * Makes the event numbered i, each number a different date, timeslot,
+     * and location
+     * @param i the number of the event
+     * @return the event
+     */
+    private static Event testEvent(int i) {
+        Location location = LOCATIONS[i % LOCATIONS.length];
+        Timeslot timeslot = TIMESLOTS[i / LOCATIONS.length
+                % TIMESLOTS.length];
+        Date date = new Date(2024, 2, 1 + i / (LOCATIONS.length
+                * TIMESLOTS.length));
+        return new Event(date, timeslot, location,
+                new Contact(Department.ITI, "iti@rutgers.edu"), 60);
+    }
+
+    /**
+     * Testbed main used as the driver to test appending and replay()
+     * @param args command line arguments
+     * @throws IOException if a test journal cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        testCleanReplay();
+        testTornTail();
+        testBadChecksumTail();
+        testBadChecksumMiddle();
+        testAppendAfterTornTail();
+        testLoneAppenderWaits();
+        testLoneAppenderFillsBatch();
+    }
+}
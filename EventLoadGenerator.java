@@ -0,0 +1,231 @@
+package eventorganizer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Load generator for EventServer: many clients on loopback each send a
+ * stream of A and R commands, one at a time, and time every response
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class EventLoadGenerator {
+    private final int port; // the port the server listens on
+    private final int clients; // number of concurrent connections
+    private final int commandsPerClient; // A/R commands sent per client
+
+    private static final int DEFAULT_PORT = 5150;
+    private static final int DEFAULT_CLIENTS = 1000;
+    private static final int DEFAULT_COMMANDS = 1000;
+    private static final int BOOKABLE_DAYS = 180;
+    private static final int BANNER_LINES = 2;
+    private static final int PERCENT_ADDS = 70;
+    private static final int PERCENT = 100;
+    private static final int[] DURATIONS = {30, 45, 60, 90, 120};
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    /**
+     * Creates a load generator
+     * @param port the port the server listens on
+     * @param clients number of concurrent connections
+     * @param commandsPerClient A/R commands sent per client
+     */
+    public EventLoadGenerator(int port, int clients, int commandsPerClient) {
+        this.port = port;
+        this.clients = clients;
+        this.commandsPerClient = commandsPerClient;
+    }
+
+    /**
+     * Connects all clients, runs them at once, and prints the latency
+     * percentiles and throughput
+     * If a client fails to connect, its failure is thrown before the
+     * run starts and the other clients are stopped
+     * @throws Exception if a client fails
+     */
+    public void run() throws Exception {
+        ExecutorService executor = EventServer.newThreadPerTaskExecutor();
+        try {
+            CountDownLatch connected = new CountDownLatch(clients);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> results = new ArrayList<>();
+            for (int i = 0; i < clients; ++i) {
+                long seed = i;
+                results.add(executor.submit(
+                        () -> runClient(seed, connected, start)));
+            }
+            connected.await();
+            for (Future<long[]> result: results) {
+                if (result.isDone()) {
+                    result.get(); // rethrows a failure to connect
+                }
+            }
+            long began = System.nanoTime();
+            start.countDown();
+
+            long[] latencies = new long[clients * commandsPerClient];
+            int n = 0;
+            for (Future<long[]> result: results) {
+                long[] client = result.get();
+                System.arraycopy(client, 0, latencies, n, client.length);
+                n += client.length;
+            }
+            long elapsed = System.nanoTime() - began;
+            report(latencies, elapsed);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one client: connects, waits for the start signal, then sends
+     * its commands one at a time
+     * @param seed the seed for the client's commands
+     * @param connected counted down once the client has connected, or
+     *                  has failed to
+     * @param start released when all clients have connected
+     * @return the latency of each command in nanoseconds
+     * @throws IOException if the connection fails
+     * @throws InterruptedException if interrupted while waiting to start
+     */
+    private long[] runClient(long seed, CountDownLatch connected,
+                             CountDownLatch start)
+            throws IOException, InterruptedException {
+        Random random = new Random(seed);
+        int today = EventClock.system().today().toEpochDay();
+        long[] latencies = new long[commandsPerClient];
+        boolean isCounted = false;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+                port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream()));
+            BufferedWriter out = new BufferedWriter(
+                    new OutputStreamWriter(socket.getOutputStream()));
+            for (int i = 0; i < BANNER_LINES; ++i) {
+                readResponse(in);
+            }
+            connected.countDown();
+            isCounted = true;
+            start.await();
+            for (int i = 0; i < commandsPerClient; ++i) {
+                String command = command(random, today);
+                long sent = System.nanoTime();
+                out.write(command);
+                out.newLine();
+                out.flush();
+                readResponse(in);
+                latencies[i] = System.nanoTime() - sent;
+            }
+            out.write("Q");
+            out.newLine();
+            out.flush();
+            readResponse(in);
+        }
+        finally {
+            if (!isCounted) {
+                connected.countDown();
+            }
+        }
+        return latencies;
+    }
+
+    /**
+     * Generates a random A or R command for a date within six months
+     * @param random the random source
+     * @param today today's epoch day
+     * @return the command line
+     */
+    private static String command(Random random, int today) {
+        Date date = Date.fromEpochDay(today + 1
+                + random.nextInt(BOOKABLE_DAYS));
+        Timeslot timeslot = Timeslot.values()[
+                random.nextInt(Timeslot.values().length)];
+        Location location = Location.values()[
+                random.nextInt(Location.values().length)];
+        StringBuilder sb = new StringBuilder();
+        boolean isAdd = random.nextInt(PERCENT) < PERCENT_ADDS;
+        sb.append(isAdd ? "A " : "R ");
+        date.appendTo(sb).append(' ').append(timeslot.name()).append(' ')
+                .append(location.name());
+        if (isAdd) {
+            Department department = Department.values()[
+                    random.nextInt(Department.values().length)];
+            sb.append(' ').append(department.name()).append(" client")
+                    .append(random.nextInt(PERCENT)).append("@rutgers.edu ")
+                    .append(DURATIONS[random.nextInt(DURATIONS.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reads one response line from the server
+     * @param in the connection's input
+     * @throws IOException if the server closed the connection
+     */
+    private static void readResponse(BufferedReader in) throws IOException {
+        if (in.readLine() == null) {
+            throw new IOException("Server closed the connection");
+        }
+    }
+
+    /**
+     * Prints the latency percentiles and throughput
+     * @param latencies the latency of every command in nanoseconds
+     * @param elapsed the wall-clock time of the run in nanoseconds
+     */
+    private void report(long[] latencies, long elapsed) {
+        Arrays.sort(latencies);
+        System.out.println(clients + " clients, " + latencies.length
+                + " commands in " + String.format("%.2f",
+                elapsed / NANOS_PER_SECOND) + " s ("
+                + String.format("%.0f",
+                latencies.length * NANOS_PER_SECOND / elapsed)
+                + " commands/s)");
+        for (double percentile: PERCENTILES) {
+            int index = (int) Math.ceil(percentile / PERCENT
+                    * latencies.length) - 1;
+            System.out.println("p" + percentile + ": " + String.format(
+                    "%.1f", latencies[Math.max(index, 0)] / NANOS_PER_MICRO)
+                    + " us");
+        }
+        System.out.println("max: " + String.format("%.1f",
+                latencies[latencies.length - 1] / NANOS_PER_MICRO) + " us");
+    }
+
+    /**
+     * Runs the load generator against a server on loopback
+     * @param args optional port, number of clients, and commands per
+     *             client; 5150, 1000, and 1000 if not specified
+     * @throws Exception if a client fails
+     */
+    public static void main(String[] args) throws Exception {
+        int port = (args.length > 0) ? Integer.parseInt(args[0])
+                : DEFAULT_PORT;
+        int clients = (args.length > 1) ? Integer.parseInt(args[1])
+                : DEFAULT_CLIENTS;
+        int commands = (args.length > 2) ? Integer.parseInt(args[2])
+                : DEFAULT_COMMANDS;
+        try {
+            new EventLoadGenerator(port, clients, commands).run();
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
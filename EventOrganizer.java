@@ -1,7 +1,17 @@
 package eventorganizer;
 
-import java.util.Scanner;
-import java.util.StringTokenizer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Processes user input and runs program
@@ -16,50 +26,174 @@ public class EventOrganizer {
     private static final String PRINT_BY_CAMPUS = "PC";
     private static final String PRINT_BY_DEPARTMENT = "PD";
     private static final String QUIT = "Q";
+    private static final String BULK = "BULK";
+    private static final String STATS = "STATS";
+    private static final String SCHEDULE = "SCHEDULE";
+
+    private static final String OVERLAPS =
+            "The event overlaps another event at this location.";
 
     private static final int MIN_DURATION = 30;
     private static final int MAX_DURATION = 120;
 
+    private final EventClock clock; // supplies today's date for validation
+    private final ContactRegistry contacts; // shares one Contact per pair
+    private final CommandStats stats; // command timings, maybe disabled
+    // where BULK and SCHEDULE files are read from, or null if disabled
+    private final Path fileDirectory;
+
+    /**
+     * Creates an EventOrganizer that validates dates against the
+     * system clock
+     */
+    public EventOrganizer() {
+        this(EventClock.system());
+    }
+
+    /**
+     * Creates an EventOrganizer that validates dates against the
+     * specified clock, records into the shared statistics, and reads
+     * files named by commands from the working directory
+     * @param clock the clock supplying today's date
+     */
+    public EventOrganizer(EventClock clock) {
+        this(clock, CommandStats.shared(), Paths.get("").toAbsolutePath());
+    }
+
+    /**
+     * Creates an EventOrganizer that validates dates against the
+     * specified clock and records into the specified statistics, with
+     * file commands disabled, as for a network session
+     * @param clock the clock supplying today's date
+     * @param stats the statistics to record into, possibly shared with
+     *              other organizers or disabled
+     */
+    public EventOrganizer(EventClock clock, CommandStats stats) {
+        this(clock, stats, null);
+    }
+
+    /**
+     * Creates an EventOrganizer that validates dates against the
+     * specified clock and records into the specified statistics
+     * @param clock the clock supplying today's date
+     * @param stats the statistics to record into, possibly shared with
+     *              other organizers or disabled
+     * @param fileDirectory the directory files named by commands are
+     *                      read from, which they may not leave, or null
+     *                      to disable file commands
+     */
+    public EventOrganizer(EventClock clock, CommandStats stats,
+                          Path fileDirectory) {
+        this.clock = clock;
+        this.contacts = ContactRegistry.shared();
+        this.stats = stats;
+        this.fileDirectory = fileDirectory;
+    }
 
     /**
      * Runs the program
      */
     public void run() {
-        System.out.println("Event Organizer running...\n");
-        EventCalendar calendar = new EventCalendar();
-        Scanner input = new Scanner(System.in);
+        run(System.in);
+    }
+
+    /**
+     * Runs the program on commands read from the specified stream
+     * @param in the stream commands are read from
+     */
+    public void run(InputStream in) {
+        run(new EventCalendar(), in, ReportWriter.console());
+    }
+
+    /**
+     * Runs one session of commands against the specified calendar
+     * Output is buffered and flushed whenever the session waits for input
+     * @param calendar the calendar the commands are applied to
+     * @param in the stream commands are read from
+     * @param out the report all responses are written to
+     */
+    public void run(EventStore calendar, InputStream in, ReportWriter out) {
+        out.println("Event Organizer running...\n");
+        CommandParser input = new CommandParser(in, ADD, REMOVE, PRINT,
+                PRINT_BY_DATE, PRINT_BY_CAMPUS, PRINT_BY_DEPARTMENT, QUIT,
+                BULK, STATS, SCHEDULE);
+        input.flushBeforeRead(out);
+        try {
+            runCommands(calendar, input, out);
+        }
+        finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Processes commands until Q or the end of input
+     * @param calendar the calendar the commands are applied to
+     * @param input the parser commands are read from
+     * @param out the report all responses are written to
+     */
+    private void runCommands(EventStore calendar, CommandParser input,
+                             ReportWriter out) {
         boolean isRunning = true;
-        while (input.hasNextLine() && isRunning) {
-            String line = input.nextLine();
-            while (line.isEmpty())
-                line = input.nextLine();
-            StringTokenizer st = new StringTokenizer(line);
-            String command = st.nextToken();
+        String command;
+        while (isRunning && (command = input.nextCommand()) != null) {
+            long started = now();
+            CommandStats.Command timed = null; // the command, if timed
             switch (command) {
                 case ADD:
-                    addEvent(calendar, st);
+                    timed = CommandStats.Command.ADD;
+                    addEvent(calendar, input, out);
                     break;
                 case REMOVE:
-                    removeEvent(calendar, st);
+                    timed = CommandStats.Command.REMOVE;
+                    removeEvent(calendar, input, out);
                     break;
                 case PRINT:
-                    calendar.print();
+                    timed = CommandStats.Command.PRINT;
+                    calendar.print(out);
+                    lap(timed, CommandStats.Phase.RENDER, started);
                     break;
                 case PRINT_BY_DATE:
-                    calendar.printByDate();
+                    timed = CommandStats.Command.PRINT_BY_DATE;
+                    calendar.printByDate(out);
+                    lap(timed, CommandStats.Phase.RENDER, started);
                     break;
                 case PRINT_BY_CAMPUS:
-                    calendar.printByCampus();
+                    timed = CommandStats.Command.PRINT_BY_CAMPUS;
+                    calendar.printByCampus(out);
+                    lap(timed, CommandStats.Phase.RENDER, started);
                     break;
                 case PRINT_BY_DEPARTMENT:
-                    calendar.printByDepartment();
+                    timed = CommandStats.Command.PRINT_BY_DEPARTMENT;
+                    calendar.printByDepartment(out);
+                    lap(timed, CommandStats.Phase.RENDER, started);
+                    break;
+                case BULK: {
+                    String file = nextFileName(command, input, out);
+                    if (file != null) {
+                        bulkImport(calendar, file, out);
+                    }
+                    break;
+                }
+                case SCHEDULE: {
+                    String file = nextFileName(command, input, out);
+                    if (file != null) {
+                        schedule(calendar, file, out);
+                    }
+                    break;
+                }
+                case STATS:
+                    stats.report(out);
                     break;
                 case QUIT:
                     isRunning = false;
-                    System.out.println("Event Organizer terminated.");
+                    out.println("Event Organizer terminated.");
                     break;
                 default:
-                    System.out.println(command + " is an invalid command!");
+                    out.println(command + " is an invalid command!");
+            }
+            if (timed != null && stats.isEnabled()) {
+                stats.recordTotal(timed, System.nanoTime() - started);
             }
         }
     }
@@ -67,166 +201,462 @@ public class EventOrganizer {
     /**
      * Adds the event to calendar if details are valid
      * @param calendar the current calendar of events
-     * @param st list of parameters
-     */
-    private void addEvent(EventCalendar calendar, StringTokenizer st) {
-        StringTokenizer dateTokens =
-                new StringTokenizer(st.nextToken(), "/");
-        int month = Integer.parseInt(dateTokens.nextToken()),
-                day = Integer.parseInt(dateTokens.nextToken()),
-                year = Integer.parseInt(dateTokens.nextToken());
-        Date date = new Date(year, month, day);
-        Timeslot startTime = findTimeSlot(st.nextToken().toUpperCase());
-        Location location = findLocation(st.nextToken().toUpperCase());
-        Department department = findDepartment(st.nextToken().toUpperCase());
-        String email = st.nextToken();
-        Contact contact = new Contact(department, email);
-        int duration = Integer.parseInt(st.nextToken());
-        if (!checkValidity(date, startTime, location,
-                department, contact, duration))
+     * @param input the parser positioned at the parameters
+     * @param out the report responses are written to
+     */
+    private void addEvent(EventStore calendar, CommandParser input,
+                          ReportWriter out) {
+        long time = now();
+        Date date = input.nextDate();
+        Timeslot startTime = input.nextTimeslot();
+        Location location = input.nextLocation();
+        Department department = input.nextDepartment();
+        String email = input.nextToken();
+        int duration = input.nextInt();
+        time = lap(CommandStats.Command.ADD, CommandStats.Phase.PARSE, time);
+        boolean isValid = checkValidity(out, date, startTime, location,
+                department, email, duration);
+        time = lap(CommandStats.Command.ADD, CommandStats.Phase.VALIDATE, time);
+        if (!isValid) {
+            stats.countRejected(1);
             return;
+        }
 
+        Contact contact = contacts.find(department, email);
         Event event = new Event(date, startTime, location,
                 contact, duration);
-        if (calendar.contains(event)) {
-            System.out.println("The event is already on the calendar.");
-            return;
+        boolean isAdded = calendar.add(event);
+        time = lap(CommandStats.Command.ADD, CommandStats.Phase.APPLY, time);
+        if (!isAdded && calendar.contains(event)) {
+            out.println("The event is already on the calendar.");
+            stats.countDuplicates(1);
+        }
+        else if (!isAdded) {
+            out.println(OVERLAPS);
+            stats.countRejected(1);
+        }
+        else {
+            contacts.intern(contact);
+            out.println("Event added to the calendar.");
+            stats.countAccepted(1);
         }
-        calendar.add(event);
-        System.out.println("Event added to the calendar.");
+        lap(CommandStats.Command.ADD, CommandStats.Phase.RENDER, time);
     }
 
     /**
      * Removes the event from calendar if details are valid
      * @param calendar the current calendar of events
-     * @param st list of parameters
-     */
-    private void removeEvent(EventCalendar calendar, StringTokenizer st) {
-        StringTokenizer dateTokens =
-                new StringTokenizer(st.nextToken(), "/");
-        int month = Integer.parseInt(dateTokens.nextToken()),
-                day = Integer.parseInt(dateTokens.nextToken()),
-                year = Integer.parseInt(dateTokens.nextToken());
-        Date date = new Date(year, month, day);
-        Timeslot startTime = findTimeSlot(st.nextToken().toUpperCase());
-        Location location = findLocation(st.nextToken().toUpperCase());
-        if (!checkValidity(date, startTime, location))
+     * @param input the parser positioned at the parameters
+     * @param out the report responses are written to
+     */
+    private void removeEvent(EventStore calendar, CommandParser input,
+                             ReportWriter out) {
+        long time = now();
+        Date date = input.nextDate();
+        Timeslot startTime = input.nextTimeslot();
+        Location location = input.nextLocation();
+        time = lap(CommandStats.Command.REMOVE,
+                CommandStats.Phase.PARSE, time);
+        boolean isValid = checkValidity(out, date, startTime, location);
+        time = lap(CommandStats.Command.REMOVE,
+                CommandStats.Phase.VALIDATE, time);
+        if (!isValid)
             return;
 
         Event event = new Event(date, startTime, location);
-        if (calendar.remove(event)) {
-            System.out.println("Event has been removed from the calendar!");
+        boolean isRemoved = calendar.remove(event);
+        time = lap(CommandStats.Command.REMOVE,
+                CommandStats.Phase.APPLY, time);
+        if (isRemoved) {
+            out.println("Event has been removed from the calendar!");
         }
         else {
-            System.out.println("Cannot remove; event is not "
+            out.println("Cannot remove; event is not "
                     + "in the calendar!");
         }
+        lap(CommandStats.Command.REMOVE,
+                CommandStats.Phase.RENDER, time);
+    }
+
+    /**
+     * Returns the current time if statistics are on
+     * @return the time in nanoseconds, or 0 if statistics are off
+     */
+    private long now() {
+        return stats.isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time a phase of a command took, if statistics are on
+     * @param command the command
+     * @param phase the phase that just ended
+     * @param since the time the phase started, as returned by now()
+     * @return the time the phase ended, when the next phase starts
+     */
+    private long lap(CommandStats.Command command, CommandStats.Phase phase,
+                     long since) {
+        if (!stats.isEnabled()) {
+            return 0;
+        }
+        long time = System.nanoTime();
+        stats.record(command, phase, time - since);
+        return time;
+    }
+
+    /**
+     * Reads the file name a file command takes
+     * Writes an error if file commands are disabled or the name is
+     * missing
+     * @param command the command
+     * @param input the parser positioned at the file name
+     * @param out the report responses are written to
+     * @return the file name, or null if the command cannot run
+     */
+    private String nextFileName(String command, CommandParser input,
+                                ReportWriter out) {
+        String file;
+        try {
+            file = input.nextToken();
+        }
+        catch (NoSuchElementException e) {
+            out.println(command + " is an invalid command!");
+            return null;
+        }
+        if (fileDirectory == null) {
+            out.println(command + ": File commands are disabled.");
+            return null;
+        }
+        return file;
     }
 
     /**
-     * Returns enum timeslot that corresponds to input timeslot
-     * if there is one
-     * @param timeslot the input timeslot
-     * @return enum timeslot if it exists, null otherwise
+     * Resolves a file name within the directory files may be read from,
+     * following links, so that no name reaches a file outside it
+     * @param file the file name
+     * @return the path of the file
+     * @throws IOException if the file does not exist or is outside the
+     *         directory
      */
-    private Timeslot findTimeSlot(String timeslot) {
-        for (Timeslot ts: Timeslot.values()) {
-            if (ts.name().equals(timeslot)) {
-                return ts;
+    private Path resolve(String file) throws IOException {
+        Path directory = fileDirectory.toRealPath();
+        Path path;
+        try {
+            path = directory.resolve(file).toRealPath();
+        }
+        catch (InvalidPathException e) {
+            throw new NoSuchFileException(file);
+        }
+        if (!path.startsWith(directory)) {
+            throw new NoSuchFileException(file);
+        }
+        return path;
+    }
+
+    /**
+     * Adds every event listed in a file, one A command per line, as a
+     * single batch: rows are validated against one pinned clock and the
+     * valid ones added to the calendar at once
+     * Writes a line for each row that was not added and a summary
+     * @param calendar the current calendar of events
+     * @param file the file listing the events
+     * @param out the report responses are written to
+     */
+    private void bulkImport(EventStore calendar, String file,
+                            ReportWriter out) {
+        EventClock batchClock = clock.pinned();
+        List<Event> batch = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        int rejected = 0;
+        try (InputStream in = Files.newInputStream(resolve(file))) {
+            CommandParser input = new CommandParser(in, ADD);
+            String command;
+            for (int row = 1; (command = input.nextCommand()) != null;
+                 ++row) {
+                String error = (command == ADD)
+                        ? readEvent(input, batchClock, batch)
+                        : "Invalid command!";
+                if (error == null) {
+                    rows.add(row);
+                }
+                else {
+                    out.println("Row " + row + ": " + error);
+                    ++rejected;
+                }
             }
         }
-        return null;
+        catch (IOException | UncheckedIOException e) {
+            out.println(file + ": Cannot read bulk file!");
+            return;
+        }
+
+        boolean[] added = calendar.addAll(batch);
+        int numAdded = 0;
+        int numDuplicates = 0;
+        for (int i = 0; i < added.length; ++i) {
+            if (added[i]) {
+                contacts.intern(batch.get(i).getContact());
+                ++numAdded;
+            }
+            else if (calendar.contains(batch.get(i))) {
+                out.println("Row " + rows.get(i)
+                        + ": The event is already on the calendar.");
+                ++numDuplicates;
+            }
+            else {
+                out.println("Row " + rows.get(i) + ": " + OVERLAPS);
+                ++rejected;
+            }
+        }
+        stats.countAccepted(numAdded);
+        stats.countRejected(rejected);
+        stats.countDuplicates(numDuplicates);
+        out.println(numAdded + " events added to the calendar, "
+                + numDuplicates + " already on the calendar, "
+                + rejected + " invalid.");
     }
 
     /**
-     * Returns enum location that corresponds to input location
-     * if there is one
-     * @param location the input location
-     * @return enum location if it exists, null otherwise
+     * Reads the parameters of an A command and adds the event to a batch
+     * if they are valid
+     * @param input the parser positioned at the parameters
+     * @param batchClock the clock supplying today's date
+     * @param batch the events read so far
+     * @return null if the event was added to the batch, or the error
+     *         statement for the row
      */
-    private Location findLocation(String location) {
-        for (Location loc: Location.values()) {
-            if (loc.name().equals(location)) {
-                return loc;
+    private String readEvent(CommandParser input, EventClock batchClock,
+                             List<Event> batch) {
+        try {
+            Date date = input.nextDate();
+            Timeslot startTime = input.nextTimeslot();
+            Location location = input.nextLocation();
+            Department department = input.nextDepartment();
+            String email = input.nextToken();
+            int duration = input.nextInt();
+            String error = validate(batchClock, date, startTime, location,
+                    department, email, duration);
+            if (error == null) {
+                batch.add(new Event(date, startTime, location,
+                        contacts.find(department, email), duration));
             }
+            return error;
+        }
+        catch (NoSuchElementException | NumberFormatException e) {
+            return "Invalid row!";
         }
-        return null;
     }
 
     /**
-     * Returns enum department that corresponds to input department
-     * if there is one
-     * @param department the input department
-     * @return enum department if it exists, null otherwise
+     * Places the events requested in a file into free cells of the
+     * calendar, one request per line in the form
+     * department email sessions duration rooms from-date to-date
+     * where rooms is a location, a campus with the spaces left out, or ANY
+     * Writes a line for each request that was not fully placed and a
+     * summary
+     * @param calendar the current calendar of events
+     * @param file the file listing the requests
+     * @param out the report responses are written to
      */
-    private Department findDepartment(String department) {
-        for (Department dep: Department.values()) {
-            if (dep.name().equals(department)) {
-                return dep;
+    private void schedule(EventStore calendar, String file,
+                          ReportWriter out) {
+        if (!(calendar instanceof EventCalendar)) {
+            out.println("Cannot schedule on this calendar!");
+            return;
+        }
+        EventClock batchClock = clock.pinned();
+        List<PlacementRequest> requests = new ArrayList<>();
+        List<Integer> rows = new ArrayList<>();
+        int rejected = 0;
+        try (InputStream in = Files.newInputStream(resolve(file))) {
+            CommandParser input = new CommandParser(in);
+            for (int row = 1; input.nextRow(); ++row) {
+                String error = readRequest(input, requests);
+                if (error == null) {
+                    rows.add(row);
+                }
+                else {
+                    out.println("Row " + row + ": " + error);
+                    ++rejected;
+                }
             }
         }
-        return null;
+        catch (IOException | UncheckedIOException e) {
+            out.println(file + ": Cannot read schedule file!");
+            return;
+        }
+
+        List<List<Event>> placed = new EventScheduler(
+                (EventCalendar) calendar).schedule(requests, batchClock);
+        int numPlaced = 0;
+        int numUnplaced = 0;
+        for (int i = 0; i < placed.size(); ++i) {
+            int sessions = requests.get(i).getSessions();
+            int count = placed.get(i).size();
+            if (count > 0) {
+                contacts.intern(requests.get(i).getContact());
+            }
+            if (count < sessions) {
+                out.println("Row " + rows.get(i) + ": " + count + " of "
+                        + sessions + " sessions placed.");
+            }
+            numPlaced += count;
+            numUnplaced += sessions - count;
+        }
+        stats.countAccepted(numPlaced);
+        stats.countRejected(rejected);
+        out.println(numPlaced + " events scheduled, " + numUnplaced
+                + " sessions could not be placed, " + rejected
+                + " invalid.");
+    }
+
+    /**
+     * Reads a placement request and adds it to a batch if it is valid
+     * @param input the parser positioned at the start of the row
+     * @param requests the requests read so far
+     * @return null if the request was added to the batch, or the error
+     *         statement for the row
+     */
+    private String readRequest(CommandParser input,
+                               List<PlacementRequest> requests) {
+        try {
+            Department department = input.nextDepartment();
+            String email = input.nextToken();
+            int sessions = input.nextInt();
+            int duration = input.nextInt();
+            EnumSet<Location> rooms = EventScheduler.roomsFor(
+                    input.nextToken());
+            Date from = input.nextDate();
+            Date to = input.nextDate();
+            if (!Contact.isValid(department, email)) {
+                return "Invalid contact information!";
+            }
+            if (sessions < 1) {
+                return "Invalid number of sessions!";
+            }
+            if (duration < MIN_DURATION || duration > MAX_DURATION) {
+                return "Event duration must be at least " + MIN_DURATION
+                        + " minutes and at most " + MAX_DURATION
+                        + " minutes";
+            }
+            if (rooms.isEmpty()) {
+                return "Invalid location!";
+            }
+            if (!from.isValid()) {
+                return from + ": Invalid calendar date!";
+            }
+            if (!to.isValid()) {
+                return to + ": Invalid calendar date!";
+            }
+            requests.add(new PlacementRequest(contacts.find(department,
+                    email), duration, rooms, from, to, sessions));
+            return null;
+        }
+        catch (NoSuchElementException | NumberFormatException e) {
+            return "Invalid row!";
+        }
+    }
+
+    /**
+     * Checks if the parameters are valid entries for a calendar event
+     * Prints error statement if there are invalid entries
+     * @param out the report error statements are written to
+     * @param date the date of the event
+     * @param tSlot the time slot of the event
+     * @param loc the location of the event
+     * @return true if valid entries, false otherwise
+     */
+    private boolean checkValidity(ReportWriter out, Date date,
+                                  Timeslot tSlot, Location loc) {
+        return report(out, validate(clock, date, tSlot, loc));
     }
 
     /**
      * Checks if the parameters are valid entries for a calendar event
      * Prints error statement if there are invalid entries
+     * @param out the report error statements are written to
      * @param date the date of the event
      * @param tSlot the time slot of the event
      * @param loc the location of the event
+     * @param dep the department of the event
+     * @param email the email of the contact for the event
+     * @param dur the duration of the event
      * @return true if valid entries, false otherwise
      */
-    private boolean checkValidity(Date date, Timeslot tSlot, Location loc) {
+    private boolean checkValidity(ReportWriter out, Date date,
+                                  Timeslot tSlot, Location loc,
+                                  Department dep, String email, int dur) {
+        return report(out, validate(clock, date, tSlot, loc, dep, email,
+                dur));
+    }
+
+    /**
+     * Helper method used to print an error statement, if there is one
+     * @param out the report error statements are written to
+     * @param error the error statement, or null if there is none
+     * @return true if there was no error, false otherwise
+     */
+    private static boolean report(ReportWriter out, String error) {
+        if (error == null) {
+            return true;
+        }
+        out.println(error);
+        return false;
+    }
+
+    /**
+     * Checks if the parameters are valid entries for a calendar event
+     * @param today the clock supplying today's date
+     * @param date the date of the event
+     * @param tSlot the time slot of the event
+     * @param loc the location of the event
+     * @return null if valid entries, the error statement otherwise
+     */
+    private static String validate(EventClock today, Date date,
+                                   Timeslot tSlot, Location loc) {
         if (!date.isValid()) {
-            System.out.println(date + ": Invalid calendar date!");
-            return false;
+            return date + ": Invalid calendar date!";
         }
-        if (!date.isFutureDate()) {
-            System.out.println(date + ": Event date must be a future date!");
-            return false;
+        if (!date.isFutureDate(today)) {
+            return date + ": Event date must be a future date!";
         }
-        if (!date.isWithinSixMonths()) {
-            System.out.println(date + ": Event date must be "
-                    + "within 6 months!");
-            return false;
+        if (!date.isWithinSixMonths(today)) {
+            return date + ": Event date must be within 6 months!";
         }
         if (tSlot == null) {
-            System.out.println("Invalid time slot!");
-            return false;
+            return "Invalid time slot!";
         }
         if (loc == null) {
-            System.out.println("Invalid location!");
-            return false;
+            return "Invalid location!";
         }
-        return true;
+        return null;
     }
 
     /**
      * Checks if the parameters are valid entries for a calendar event
-     * Prints error statement if there are invalid entries
+     * @param today the clock supplying today's date
      * @param date the date of the event
      * @param tSlot the time slot of the event
      * @param loc the location of the event
      * @param dep the department of the event
-     * @param contact the contact for the event
+     * @param email the email of the contact for the event
      * @param dur the duration of the event
-     * @return true if valid entries, false otherwise
+     * @return null if valid entries, the error statement otherwise
      */
-    private boolean checkValidity(Date date, Timeslot tSlot, Location loc,
-                                  Department dep, Contact contact, int dur) {
-        if (!checkValidity(date, tSlot, loc)) {
-            return false;
+    private static String validate(EventClock today, Date date,
+                                   Timeslot tSlot, Location loc,
+                                   Department dep, String email,
+                                   int dur) {
+        String error = validate(today, date, tSlot, loc);
+        if (error != null) {
+            return error;
         }
-        if (dep == null || !contact.isValid()) {
-            System.out.println("Invalid contact information!");
-            return false;
+        if (!Contact.isValid(dep, email)) {
+            return "Invalid contact information!";
         }
         if (dur < MIN_DURATION || dur > MAX_DURATION) {
-            System.out.println("Event duration must be at least "
-                    + MIN_DURATION + " minutes and at most "
-                    + MAX_DURATION + " minutes");
-            return false;
+            return "Event duration must be at least " + MIN_DURATION
+                    + " minutes and at most " + MAX_DURATION + " minutes";
         }
-        return true;
+        return null;
     }
 }
@@ -0,0 +1,198 @@
+package eventorganizer;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Places a batch of requested events into free (date, timeslot, location)
+ * cells of a calendar in one pass
+ * Requests with the fewest spare cells are placed first, so a request
+ * that can only go in one room in one week is not crowded out by one
+ * that could go anywhere; each session then takes the earliest free cell
+ * the calendar's occupancy bitmap reports for the request's rooms,
+ * searching on from the previous session instead of trying every cell
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class EventScheduler {
+    private final EventCalendar calendar; // the calendar events go in
+
+    private static final int TIMESLOTS = Timeslot.values().length;
+    private static final String ANY_ROOM = "ANY";
+    private static final int TEST_SESSIONS = 100;
+
+    /**
+     * Creates a scheduler that places events in the specified calendar
+     * @param calendar the calendar
+     */
+    public EventScheduler(EventCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    /**
+     * Places every session of every request it can, adding the events
+     * to the calendar
+     * Each window is first narrowed to the dates an event may be booked
+     * on, after today and within six months
+     * @param requests the requests
+     * @param clock the clock supplying today's date
+     * @return for each request, in order, the events placed for it,
+     *         fewer than its sessions if the rest could not be placed
+     */
+    public List<List<Event>> schedule(List<PlacementRequest> requests,
+                                      EventClock clock) {
+        int firstDay = clock.today().toEpochDay() + 1;
+        int lastDay = clock.maxEventDate().toEpochDay();
+        List<List<Event>> placed = new ArrayList<>(requests.size());
+        List<Integer> order = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); ++i) {
+            placed.add(new ArrayList<>());
+            order.add(i);
+        }
+        order.sort(Comparator.comparingLong(
+                i -> spareCells(requests.get(i), firstDay, lastDay)));
+        for (int i: order) {
+            place(requests.get(i), firstDay, lastDay, placed.get(i));
+        }
+        return placed;
+    }
+
+    /**
+     * Returns the locations a preference token stands for: a location,
+     * a campus with the spaces left out, or ANY, ignoring case
+     * @param preference the token
+     * @return the locations, or an empty set if the token names none
+     */
+    public static EnumSet<Location> roomsFor(String preference) {
+        EnumSet<Location> rooms = EnumSet.noneOf(Location.class);
+        for (Location location: Location.values()) {
+            String campus = location.getCampus().replace(" ", "");
+            if (preference.equalsIgnoreCase(ANY_ROOM)
+                    || preference.equalsIgnoreCase(location.name())
+                    || preference.equalsIgnoreCase(campus)) {
+                rooms.add(location);
+            }
+        }
+        return rooms;
+    }
+
+    /**
+     * Places the sessions of one request, each in the earliest free cell
+     * at or after the cell of the previous session
+     * @param request the request
+     * @param firstDay the first epoch day an event may be booked on
+     * @param lastDay the last epoch day an event may be booked on
+     * @param events the list the placed events are added to
+     */
+    private void place(PlacementRequest request, int firstDay, int lastDay,
+                       List<Event> events) {
+        int first = Math.max(request.getFrom().toEpochDay(), firstDay);
+        int last = Math.min(request.getTo().toEpochDay(), lastDay);
+        if (first > last || request.getRooms().isEmpty()) {
+            return;
+        }
+        Date from = Date.fromEpochDay(first);
+        Date to = Date.fromEpochDay(last);
+        while (events.size() < request.getSessions()) {
+            Event cell = calendar.firstFreeSlot(request.getRooms(), from, to);
+            if (cell == null) {
+                return;
+            }
+            Event event = new Event(cell.getDate(), cell.getStartTime(),
+                    cell.getLocation(), request.getContact(),
+                    request.getDuration());
+            calendar.add(event);
+            events.add(event);
+            from = cell.getDate();
+        }
+    }
+
+    /**
+     * Returns how many more cells a request could go in than it has
+     * sessions, ignoring cells that are already booked
+     * @param request the request
+     * @param firstDay the first epoch day an event may be booked on
+     * @param lastDay the last epoch day an event may be booked on
+     * @return the number of spare cells, negative if there are too few
+     */
+    private static long spareCells(PlacementRequest request, int firstDay,
+                                   int lastDay) {
+        int first = Math.max(request.getFrom().toEpochDay(), firstDay);
+        int last = Math.min(request.getTo().toEpochDay(), lastDay);
+        long days = Math.max(last - first + 1, 0);
+        return days * TIMESLOTS * request.getRooms().size()
+                - request.getSessions();
+    }
+
+    /**
+     * Test case #1
+     * Tests if a scheduler run on the last day of a month stops at the
+     * last day of the month six months on, which has fewer days
+     */
+    private static void testMonthEndToday() {
+        System.out.println("** Test case #1: today 8/31/2026, events are "
+                + "placed through 2/28/2027 only");
+        testHorizon("2026-08-31T12:00:00Z", new Date(2027, 2, 20),
+                new Date(2027, 3, 10), new Date(2027, 2, 28));
+    }
+
+    /**
+     * Test case #2
+     * Tests if a scheduler run in the middle of a month stops at the same
+     * day of the month six months on
+     */
+    private static void testMidMonthToday() {
+        System.out.println("** Test case #2: today 8/15/2026, events are "
+                + "placed through 2/15/2027 only");
+        testHorizon("2026-08-15T12:00:00Z", new Date(2027, 2, 10),
+                new Date(2027, 2, 20), new Date(2027, 2, 15));
+    }
+
+    /**
+     * Schedules more sessions in one room than a window can hold on a
+     * clock fixed at an instant, and prints whether they fill the window
+     * up to the last day within six months, and no further
+     * @param now the instant the clock is fixed at
+     * @param from the first date of the window
+     * @param to the last date of the window
+     * @param lastDay the last day within six months of the instant
+     */
+    private static void testHorizon(String now, Date from, Date to,
+                                    Date lastDay) {
+        EventClock clock = new EventClock(Clock.fixed(Instant.parse(now),
+                ZoneOffset.UTC));
+        PlacementRequest request = new PlacementRequest(
+                new Contact(Department.CS, "cs@rutgers.edu"), 60,
+                EnumSet.of(Location.HLL114), from, to, TEST_SESSIONS);
+        List<Event> placed = new EventScheduler(new EventCalendar())
+                .schedule(List.of(request), clock).get(0);
+        int expectedEvents = (lastDay.toEpochDay() - from.toEpochDay() + 1)
+                * TIMESLOTS;
+        Date latest = null;
+        boolean isWithinSixMonths = true;
+        for (Event event: placed) {
+            isWithinSixMonths &= event.getDate().isWithinSixMonths(clock);
+            if (latest == null || event.getDate().compareTo(latest) > 0) {
+                latest = event.getDate();
+            }
+        }
+        Testbed.printResult(from + " to " + to, expectedEvents
+                + " events through " + lastDay + ", all within six months",
+                placed.size() + " events through " + latest
+                + (isWithinSixMonths ? ", all within six months" : ""));
+    }
+
+    /**
+     * Testbed main used as the driver to test the six-month horizon of
+     * schedule()
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        testMonthEndToday();
+        testMidMonthToday();
+    }
+}
@@ -0,0 +1,155 @@
+package eventorganizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the EventOrganizer command protocol to many clients over TCP,
+ * all sharing one calendar; each connection is a separate session
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class EventServer implements Closeable {
+    private final ServerSocket serverSocket; // accepts client connections
+    private final EventStore calendar; // the calendar shared by all clients
+    private final EventClock clock; // supplies today's date for validation
+    private final CommandStats stats; // command timings of all sessions
+    private final ExecutorService sessions; // runs one task per connection
+    private final Thread acceptor; // thread accepting connections
+
+    private static final int DEFAULT_PORT = 5150;
+    private static final int BACKLOG = 1024;
+    private static final int SESSION_BUFFER_SIZE = 4096;
+
+    /**
+     * Creates a server on the loopback address sharing a new
+     * ConcurrentEventCalendar; call start() to accept connections
+     * @param port the port to listen on, 0 for any free port
+     * @param clock the clock supplying today's date
+     * @throws IOException if the port cannot be bound
+     */
+    public EventServer(int port, EventClock clock) throws IOException {
+        this(port, clock, new ConcurrentEventCalendar());
+    }
+
+    /**
+     * Creates a server on the loopback address sharing the specified
+     * calendar, which must be safe for concurrent use
+     * @param port the port to listen on, 0 for any free port
+     * @param clock the clock supplying today's date
+     * @param calendar the calendar shared by all clients
+     * @throws IOException if the port cannot be bound
+     */
+    public EventServer(int port, EventClock clock, EventStore calendar)
+            throws IOException {
+        this.serverSocket = new ServerSocket(port, BACKLOG,
+                InetAddress.getLoopbackAddress());
+        this.calendar = calendar;
+        this.clock = clock;
+        this.stats = CommandStats.shared();
+        this.sessions = newThreadPerTaskExecutor();
+        this.acceptor = new Thread(this::acceptConnections, "event-server");
+    }
+
+    /**
+     * Starts accepting connections in the background
+     */
+    public void start() {
+        acceptor.start();
+    }
+
+    /**
+     * Returns the port the server is listening on
+     * @return port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections and ends the sessions in progress
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+
+    /**
+     * Accepts connections until the server is closed, starting a
+     * session for each one
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sessions.execute(() -> serve(socket));
+            }
+            catch (SocketException e) {
+                return; // closed
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Runs one client session until the client sends Q or disconnects
+     * @param socket the client connection
+     */
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            ReportWriter out = new ReportWriter(new OutputStreamWriter(
+                    socket.getOutputStream()), SESSION_BUFFER_SIZE);
+            new EventOrganizer(clock, stats).run(calendar,
+                    socket.getInputStream(), out);
+        }
+        catch (IOException | UncheckedIOException e) {
+            // the client went away; nothing to report back to
+        }
+        catch (RuntimeException e) {
+            System.err.println("Session ended: " + e);
+        }
+    }
+
+    /**
+     * Returns an executor that runs each task on its own virtual thread
+     * when the runtime supports them (Java 21+), or on a pooled platform
+     * thread otherwise
+     * @return the executor
+     */
+    static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Runs a server until the process is stopped
+     * @param args optional port, 5150 if not specified
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0])
+                : DEFAULT_PORT;
+        EventServer server = new EventServer(port, EventClock.system());
+        server.start();
+        System.out.println("Event Organizer server listening on "
+                + server.getPort());
+    }
+}
@@ -0,0 +1,73 @@
+package eventorganizer;
+
+import java.util.List;
+
+/**
+ * The operations EventOrganizer needs from a calendar of events
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public interface EventStore {
+    /**
+     * Adds an event unless one with the same date, timeslot, and
+     * location is already in the calendar
+     * @param  event the event to be added
+     * @return true if event is successfully added,
+     *         false if the event is already in the calendar
+     */
+    boolean add(Event event);
+
+    /**
+     * Adds a batch of events in order, skipping each event whose date,
+     * timeslot, and location is already booked, whether by the calendar
+     * or by an earlier event in the batch
+     * @param  batch the events to be added
+     * @return for each event in the batch, true if it was added,
+     *         false if it was already booked
+     */
+    default boolean[] addAll(List<Event> batch) {
+        boolean[] added = new boolean[batch.size()];
+        for (int i = 0; i < added.length; ++i) {
+            added[i] = add(batch.get(i));
+        }
+        return added;
+    }
+
+    /**
+     * Deletes the specified event from the calendar if it exists
+     * @param  event the event to be deleted
+     * @return true if event is successfully deleted,
+     *         false if event is not found in the calendar
+     */
+    boolean remove(Event event);
+
+    /**
+     * Checks whether an event exists in the calendar
+     * @param  event the event to be searched
+     * @return true if calendar contains specified event, false if not
+     */
+    boolean contains(Event event);
+
+    /**
+     * Writes the events in insertion order to a report
+     * @param out the report the events are written to
+     */
+    void print(ReportWriter out);
+
+    /**
+     * Writes the events ordered by date and timeslot to a report
+     * @param out the report the events are written to
+     */
+    void printByDate(ReportWriter out);
+
+    /**
+     * Writes the events ordered by campus and building/room to a report
+     * @param out the report the events are written to
+     */
+    void printByCampus(ReportWriter out);
+
+    /**
+     * Writes the events ordered by department to a report
+     * @param out the report the events are written to
+     */
+    void printByDepartment(ReportWriter out);
+}
@@ -0,0 +1,266 @@
+package eventorganizer;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Index of the time each event occupies in its room, from its start to
+ * its start plus duration
+ * Each location has a timeline of events keyed by their start minute
+ * counted from the epoch, so the events of one (location, date) are a
+ * contiguous range of it; since the index holds no overlapping events,
+ * only the last event starting before a new one ends can overlap it,
+ * and every check is O(log n)
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class IntervalIndex {
+    // the events at each location, by start minute
+    private final EnumMap<Location, TreeMap<Long, Event>> rooms;
+
+    private static final long MINUTES_IN_DAY = 24 * 60;
+    private static final Date TEST_DATE = new Date(2024, 2, 29);
+    // minutes from the morning timeslot to the afternoon one
+    private static final int MORNING_GAP = Timeslot.AFTERNOON
+            .getMinuteOfDay() - Timeslot.MORNING.getMinuteOfDay();
+
+    /**
+     * Creates an empty index
+     */
+    public IntervalIndex() {
+        rooms = new EnumMap<>(Location.class);
+    }
+
+    /**
+     * Adds an event unless it overlaps an event already in its room
+     * @param event the event to be added
+     * @return true if the event was added, false if it overlaps another
+     */
+    public boolean add(Event event) {
+        if (findOverlap(event) != null) {
+            return false;
+        }
+        rooms.computeIfAbsent(event.getLocation(), key -> new TreeMap<>())
+                .put(start(event.getDate(), event.getStartTime()
+                        .getMinuteOfDay()), event);
+        return true;
+    }
+
+    /**
+     * Removes the event with the same date, timeslot, and location
+     * @param event the event to be removed
+     * @return true if an event was removed, false if there was none
+     */
+    public boolean remove(Event event) {
+        TreeMap<Long, Event> room = rooms.get(event.getLocation());
+        return room != null && room.remove(start(event.getDate(),
+                event.getStartTime().getMinuteOfDay())) != null;
+    }
+
+    /**
+     * Finds an event in the same room whose time overlaps the time of
+     * the specified event
+     * @param event the event to be checked
+     * @return the overlapping event, or null if there is none
+     */
+    public Event findOverlap(Event event) {
+        TreeMap<Long, Event> room = rooms.get(event.getLocation());
+        if (room == null) {
+            return null;
+        }
+        long start = start(event.getDate(),
+                event.getStartTime().getMinuteOfDay());
+        Map.Entry<Long, Event> before = room.lowerEntry(
+                start + Math.max(event.getDuration(), 1));
+        if (before != null && end(before) > start) {
+            return before.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Returns the events in a room whose time overlaps part of a period
+     * of one day, ordered by start time
+     * @param location the room
+     * @param date the date
+     * @param fromMinute the start of the period, in minutes from midnight
+     * @param toMinute the end of the period, exclusive
+     * @return the events in the room during the period
+     */
+    public List<Event> eventsIn(Location location, Date date,
+                                int fromMinute, int toMinute) {
+        List<Event> events = new ArrayList<>();
+        TreeMap<Long, Event> room = rooms.get(location);
+        if (room == null || fromMinute >= toMinute) {
+            return events;
+        }
+        long from = start(date, fromMinute);
+        long to = start(date, toMinute);
+        Map.Entry<Long, Event> before = room.lowerEntry(from);
+        if (before != null && end(before) > from) {
+            events.add(before.getValue());
+        }
+        events.addAll(room.subMap(from, true, to, false).values());
+        return events;
+    }
+
+    /**
+     * Returns the minute a time on a date falls on, counted from the epoch
+     * @param date the date
+     * @param minuteOfDay the minutes from midnight
+     * @return the minute
+     */
+    private static long start(Date date, int minuteOfDay) {
+        return date.toEpochDay() * MINUTES_IN_DAY + minuteOfDay;
+    }
+
+    /**
+     * Returns the minute an indexed event ends on
+     * @param entry the start minute and the event
+     * @return the first minute after the event
+     */
+    private static long end(Map.Entry<Long, Event> entry) {
+        return entry.getKey() + entry.getValue().getDuration();
+    }
+
+    /**
+     * Test case #1
+     * Tests if an event ending exactly when the next one starts does not
+     * overlap it
+     */
+    private static void testTouchingBefore() {
+        System.out.println("** Test case #1: an event ending as the next "
+                + "starts does not overlap it");
+        IntervalIndex index = new IntervalIndex();
+        index.add(testEvent(TEST_DATE, Timeslot.AFTERNOON, 60));
+        Event event = testEvent(TEST_DATE, Timeslot.MORNING, MORNING_GAP);
+        boolean expectedOutput = true, actualOutput = index.add(event);
+        Testbed.printResult(event, expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test case #2
+     * Tests if an event ending one minute after the next one starts
+     * overlaps it
+     */
+    private static void testOverlappingBefore() {
+        System.out.println("** Test case #2: an event ending a minute "
+                + "after the next starts overlaps it");
+        IntervalIndex index = new IntervalIndex();
+        index.add(testEvent(TEST_DATE, Timeslot.AFTERNOON, 60));
+        Event event = testEvent(TEST_DATE, Timeslot.MORNING,
+                MORNING_GAP + 1);
+        boolean expectedOutput = false, actualOutput = index.add(event);
+        Testbed.printResult(event, expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test case #3
+     * Tests if an event starting exactly when an earlier one ends does
+     * not overlap it
+     */
+    private static void testTouchingAfter() {
+        System.out.println("** Test case #3: an event starting as the "
+                + "earlier ends does not overlap it");
+        IntervalIndex index = new IntervalIndex();
+        index.add(testEvent(TEST_DATE, Timeslot.MORNING, MORNING_GAP));
+        Event event = testEvent(TEST_DATE, Timeslot.AFTERNOON, 60);
+        boolean expectedOutput = true, actualOutput = index.add(event);
+        Testbed.printResult(event, expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test case #4
+     * Tests if an event starting one minute before an earlier one ends
+     * overlaps it
+     */
+    private static void testOverlappingAfter() {
+        System.out.println("** Test case #4: an event starting a minute "
+                + "before the earlier ends overlaps it");
+        IntervalIndex index = new IntervalIndex();
+        index.add(testEvent(TEST_DATE, Timeslot.MORNING, MORNING_GAP + 1));
+        Event event = testEvent(TEST_DATE, Timeslot.AFTERNOON, 60);
+        boolean expectedOutput = false, actualOutput = index.add(event);
+        Testbed.printResult(event, expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test case #5
+     * Tests if an evening event running past midnight overlaps a morning
+     * event on the next date
+     */
+    private static void testOverlappingNextDay() {
+        System.out.println("** Test case #5: an event running past "
+                + "midnight overlaps the next morning");
+        IntervalIndex index = new IntervalIndex();
+        int overnight = (int) MINUTES_IN_DAY
+                - Timeslot.EVENING.getMinuteOfDay()
+                + Timeslot.MORNING.getMinuteOfDay();
+        index.add(testEvent(TEST_DATE, Timeslot.EVENING, overnight + 1));
+        Event event = testEvent(new Date(2024, 3, 1), Timeslot.MORNING, 30);
+        boolean expectedOutput = false, actualOutput = index.add(event);
+        Testbed.printResult(event, expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test case #6
+     * Tests if removing an event frees its time for an overlapping one
+     */
+    private static void testRemoveFreesTime() {
+        System.out.println("** Test case #6: removing an event frees its "
+                + "time");
+        IntervalIndex index = new IntervalIndex();
+        index.add(testEvent(TEST_DATE, Timeslot.MORNING, MORNING_GAP + 1));
+        index.remove(new Event(TEST_DATE, Timeslot.MORNING,
+                Location.HLL114));
+        Event event = testEvent(TEST_DATE, Timeslot.AFTERNOON, 60);
+        boolean expectedOutput = true, actualOutput = index.add(event);
+        Testbed.printResult(event, expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test case #7
+     * Tests if a period starting as an event ends does not include it
+     */
+    private static void testPeriodAtEnd() {
+        System.out.println("** Test case #7: a period starting as an "
+                + "event ends does not include it");
+        IntervalIndex index = new IntervalIndex();
+        Event event = testEvent(TEST_DATE, Timeslot.MORNING, MORNING_GAP);
+        index.add(event);
+        int from = Timeslot.AFTERNOON.getMinuteOfDay();
+        boolean expectedOutput = true, actualOutput = index.eventsIn(
+                Location.HLL114, TEST_DATE, from, from + 60).isEmpty();
+        Testbed.printResult(event, expectedOutput, actualOutput);
+    }
+
+    /**
+     * Makes an event in HLL114
+     * @param date the date of the event
+     * @param timeslot the start time of the event
+     * @param duration the duration of the event in minutes
+     * @return the event
+     */
+    private static Event testEvent(Date date, Timeslot timeslot,
+                                   int duration) {
+        return new Event(date, timeslot, Location.HLL114,
+                new Contact(Department.CS, "cs@rutgers.edu"), duration);
+    }
+
+    /**
+     * Testbed main used as the driver to test add(), remove(), and
+     * eventsIn() where intervals meet
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        testTouchingBefore();
+        testOverlappingBefore();
+        testTouchingAfter();
+        testOverlappingAfter();
+        testOverlappingNextDay();
+        testRemoveFreesTime();
+        testPeriodAtEnd();
+    }
+}
@@ -0,0 +1,216 @@
+package eventorganizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * An EventCalendar made durable by a snapshot and a journal
+ * Every add or remove the calendar accepts is appended to the journal,
+ * which is group committed; on opening, the latest snapshot is loaded
+ * and the journal replayed on top of it, and once the journal grows past
+ * a threshold it is folded into a new snapshot and emptied
+ * An add or remove returns only once its journal record is on disk; it
+ * waits for the sync outside the calendar's lock, so the changes of
+ * concurrent sessions go into one batch and share a single fsync
+ * Every method is synchronized apart from that wait, so one instance can
+ * be shared by the sessions of an EventServer
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class JournaledCalendar implements EventStore, Closeable {
+    private final Path snapshotPath; // the latest snapshot
+    private final EventCalendar calendar; // the recovered calendar
+    private final EventJournal journal; // changes since the snapshot
+    private final long compactionThreshold; // journal bytes to compact at
+
+    private static final int DEFAULT_BATCH_SIZE = 64;
+    private static final long DEFAULT_WINDOW_MILLIS = 10;
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 16 << 20;
+
+    /**
+     * Opens a calendar with the default group commit of 64 records or
+     * 10 milliseconds, compacting once the journal reaches 16 MB
+     * @param snapshotPath the snapshot file, created on compaction
+     * @param journalPath the journal file, created if it does not exist
+     * @throws IOException if either file cannot be read or opened
+     */
+    public JournaledCalendar(Path snapshotPath, Path journalPath)
+            throws IOException {
+        this(snapshotPath, journalPath, DEFAULT_BATCH_SIZE,
+                DEFAULT_WINDOW_MILLIS, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Opens a calendar, recovering its events from the snapshot and the
+     * journal
+     * @param snapshotPath the snapshot file, created on compaction
+     * @param journalPath the journal file, created if it does not exist
+     * @param batchSize records per group commit; 1 syncs every record
+     * @param windowMillis longest a record waits to be synced
+     * @param compactionThreshold journal length in bytes at which it is
+     *                            folded into a new snapshot
+     * @throws IOException if either file cannot be read or opened
+     */
+    public JournaledCalendar(Path snapshotPath, Path journalPath,
+                             int batchSize, long windowMillis,
+                             long compactionThreshold) throws IOException {
+        this.snapshotPath = snapshotPath;
+        this.calendar = Files.exists(snapshotPath)
+                ? CalendarSnapshot.load(snapshotPath) : new EventCalendar();
+        long validLength = EventJournal.replay(journalPath, calendar);
+        this.journal = new EventJournal(journalPath, validLength, batchSize,
+                windowMillis);
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Adds an event and journals it if it is not already booked,
+     * returning once the journal record is on disk
+     * @param  event the event to be added
+     * @return true if event is successfully added,
+     *         false if the event is already in the list
+     */
+    @Override
+    public boolean add(Event event) {
+        long record;
+        synchronized (this) {
+            if (!calendar.add(event)) {
+                return false;
+            }
+            record = journal.appendAdd(event);
+            compactIfNeeded();
+        }
+        journal.awaitDurable(record);
+        return true;
+    }
+
+    /**
+     * Adds a batch of events, journaling each one that is added, and
+     * returns once every journal record is on disk
+     * @param  batch the events to be added
+     * @return for each event in the batch, true if it was added,
+     *         false if it was already booked
+     */
+    @Override
+    public boolean[] addAll(List<Event> batch) {
+        boolean[] added;
+        long record = 0;
+        synchronized (this) {
+            added = calendar.addAll(batch);
+            for (int i = 0; i < added.length; ++i) {
+                if (added[i]) {
+                    record = journal.appendAdd(batch.get(i));
+                }
+            }
+            compactIfNeeded();
+        }
+        journal.awaitDurable(record);
+        return added;
+    }
+
+    /**
+     * Deletes an event and journals it if it exists, returning once the
+     * journal record is on disk
+     * @param  event the event to be deleted
+     * @return true if event is successfully deleted,
+     *         false if event is not found in list
+     */
+    @Override
+    public boolean remove(Event event) {
+        long record;
+        synchronized (this) {
+            if (!calendar.remove(event)) {
+                return false;
+            }
+            record = journal.appendRemove(event);
+            compactIfNeeded();
+        }
+        journal.awaitDurable(record);
+        return true;
+    }
+
+    /**
+     * Checks whether an event exists in the list
+     * @param  event the event to be searched
+     * @return true if list contains specified event, false if not
+     */
+    @Override
+    public synchronized boolean contains(Event event) {
+        return calendar.contains(event);
+    }
+
+    /**
+     * Writes the events in the order they were added to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public synchronized void print(ReportWriter out) {
+        calendar.print(out);
+    }
+
+    /**
+     * Writes the events ordered by date and timeslot to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public synchronized void printByDate(ReportWriter out) {
+        calendar.printByDate(out);
+    }
+
+    /**
+     * Writes the events ordered by campus and building/room to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public synchronized void printByCampus(ReportWriter out) {
+        calendar.printByCampus(out);
+    }
+
+    /**
+     * Writes the events ordered by department to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public synchronized void printByDepartment(ReportWriter out) {
+        calendar.printByDepartment(out);
+    }
+
+    /**
+     * Folds the journal into a new snapshot and empties it
+     * The snapshot is replaced atomically before the journal is emptied;
+     * if a crash falls between the two, replaying the old journal onto
+     * the new snapshot recovers the same bookings
+     * @throws UncheckedIOException if the snapshot cannot be written
+     */
+    public synchronized void compact() {
+        journal.sync();
+        try {
+            CalendarSnapshot.save(calendar, snapshotPath);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        journal.truncate();
+    }
+
+    /**
+     * Syncs the journal and closes it
+     * @throws IOException if the journal cannot be written or closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        journal.close();
+    }
+
+    /**
+     * Compacts the journal once it reaches the threshold
+     */
+    private void compactIfNeeded() {
+        if (journal.size() >= compactionThreshold) {
+            compact();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package eventorganizer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds with log-linear buckets: each
+ * power of two is split into 32 buckets, so any percentile is reported
+ * to within about 3% of the recorded value
+ * Recording is one atomic increment and never allocates, and readers
+ * never block writers
+ * Values are recorded into one of several stripes picked by thread, so
+ * sessions recording at once mostly update different arrays rather than
+ * contending on one; readers merge the stripes
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class LatencyHistogram {
+    private final Stripe[] stripes; // recorded into, merged when read
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS)
+            * SUB_BUCKETS;
+    private static final double PERCENT = 100;
+    private static final int MAX_STRIPES = 16;
+    private static final int TEST_THREADS = 8;
+    private static final int TEST_VALUES = 10000;
+    // a power of two, so a thread id is mapped to a stripe by a mask
+    private static final int NUM_STRIPES = Math.min(Integer.highestOneBit(
+            Runtime.getRuntime().availableProcessors() * 2 - 1),
+            MAX_STRIPES);
+
+    /**
+     * Creates an empty histogram with one stripe per processor, up to 16
+     */
+    public LatencyHistogram() {
+        stripes = new Stripe[NUM_STRIPES];
+        for (int i = 0; i < stripes.length; ++i) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Records one latency in the stripe of the calling thread
+     * @param nanos the latency in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        Stripe stripe = stripes[(int) Thread.currentThread().getId()
+                & (stripes.length - 1)];
+        stripe.counts.incrementAndGet(bucket(value));
+        long current = stripe.max.get();
+        while (value > current && !stripe.max.compareAndSet(current, value)) {
+            current = stripe.max.get();
+        }
+    }
+
+    /**
+     * Returns the number of latencies recorded
+     * @return count
+     */
+    public long count() {
+        long count = 0;
+        for (long bucketCount: merged()) {
+            count += bucketCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the latency at or below which the specified percentage of
+     * the recorded latencies fall
+     * @param percentile the percentage, from 0 to 100
+     * @return the latency in nanoseconds, or 0 if none were recorded
+     */
+    public long percentile(double percentile) {
+        long[] counts = merged();
+        long count = 0;
+        for (long bucketCount: counts) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(percentile / PERCENT * count),
+                1);
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; ++i) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max());
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Returns the largest latency recorded
+     * @return the latency in nanoseconds, or 0 if none were recorded
+     */
+    public long max() {
+        long max = 0;
+        for (Stripe stripe: stripes) {
+            max = Math.max(max, stripe.max.get());
+        }
+        return max;
+    }
+
+    /**
+     * Adds up the counts of every stripe, bucket by bucket
+     * @return the number of values per bucket
+     */
+    private long[] merged() {
+        long[] counts = new long[NUM_BUCKETS];
+        for (Stripe stripe: stripes) {
+            for (int i = 0; i < NUM_BUCKETS; ++i) {
+                counts[i] += stripe.counts.get(i);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the bucket a value falls in
+     * @param value a non-negative value
+     * @return the index of its bucket
+     */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS
+                + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Returns the largest value that falls in a bucket
+     * @param bucket the index of the bucket
+     * @return the largest value in the bucket
+     */
+    private static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = SUB_BUCKETS + bucket % SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * The values recorded by the threads mapped to one stripe
+     */
+    private static class Stripe {
+        // number of values per bucket
+        private final AtomicLongArray counts = new AtomicLongArray(
+                NUM_BUCKETS);
+        private final AtomicLong max = new AtomicLong(); // largest value
+    }
+
+    /**
+     * Test case #1
+     * Tests if values recorded on several threads are all counted once
+     * the stripes are merged
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void testMergedCount() throws InterruptedException {
+        System.out.println("** Test case #1: values recorded on several "
+                + "threads are all counted");
+        LatencyHistogram histogram = recordOnThreads();
+        Testbed.printResult(TEST_THREADS + " threads, " + TEST_VALUES
+                + " values each", (long) TEST_THREADS * TEST_VALUES,
+                histogram.count());
+    }
+
+    /**
+     * Test case #2
+     * Tests if the max and the median are taken over every stripe
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void testMergedPercentiles()
+            throws InterruptedException {
+        System.out.println("** Test case #2: max and p50 are taken over "
+                + "the values of every thread");
+        LatencyHistogram histogram = recordOnThreads();
+        long largest = (long) TEST_THREADS * TEST_VALUES;
+        long median = histogram.percentile(50);
+        boolean expectedOutput = true, actualOutput =
+                histogram.max() == largest
+                && Math.abs(median - largest / 2) <= largest / 2 / 32;
+        Testbed.printResult("1 to " + largest + " over " + TEST_THREADS
+                + " threads", expectedOutput, actualOutput);
+    }
+
+    /**
+     * Records the values 1 to TEST_THREADS * TEST_VALUES, each thread
+     * recording every TEST_THREADS-th value
+     * @return the histogram
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static LatencyHistogram recordOnThreads()
+            throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[TEST_THREADS];
+        for (int i = 0; i < threads.length; ++i) {
+            int first = i + 1;
+            threads[i] = new Thread(() -> {
+                for (long value = first; value <= (long) TEST_THREADS
+                        * TEST_VALUES; value += TEST_THREADS) {
+                    histogram.record(value);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread: threads) {
+            thread.join();
+        }
+        return histogram;
+    }
+
+    /**
+     * Testbed main used as the driver to test recording from several
+     * threads and reading the merged stripes
+     * @param args command line arguments
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static void main(String[] args) throws InterruptedException {
+        testMergedCount();
+        testMergedPercentiles();
+    }
+}
@@ -0,0 +1,97 @@
+package eventorganizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A shard of a ShardedCalendar held in this JVM: an EventCalendar and
+ * the sequence number each of its events was added with
+ * A listing sorts the events by the order and then by sequence number
+ * Like EventCalendar, it is not safe for concurrent use
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class LocalShard implements CalendarShard {
+    private final EventCalendar calendar; // the events of the shard
+    private final HashMap<Event, Long> sequences; // event -> its add
+    private long lastSequence; // highest sequence number ever added
+
+    private static final long NO_SEQUENCE = -1;
+
+    /**
+     * Creates an empty shard
+     */
+    public LocalShard() {
+        this.calendar = new EventCalendar();
+        this.sequences = new HashMap<>();
+        this.lastSequence = NO_SEQUENCE;
+    }
+
+    /**
+     * Adds an event unless one with the same date, timeslot, and
+     * location is already in the shard
+     * @param  event the event to be added
+     * @param  sequence the sequence number of the add
+     * @return true if event is successfully added,
+     *         false if the event is already in the shard
+     */
+    @Override
+    public boolean add(Event event, long sequence) {
+        if (!calendar.add(event)) {
+            return false;
+        }
+        sequences.put(event, sequence);
+        lastSequence = Math.max(lastSequence, sequence);
+        return true;
+    }
+
+    /**
+     * Deletes the specified event from the shard if it exists
+     * @param  event the event to be deleted
+     * @return true if event is successfully deleted,
+     *         false if event is not found in the shard
+     */
+    @Override
+    public boolean remove(Event event) {
+        if (!calendar.remove(event)) {
+            return false;
+        }
+        sequences.remove(event);
+        return true;
+    }
+
+    /**
+     * Checks whether an event exists in the shard
+     * @param  event the event to be searched
+     * @return true if shard contains specified event, false if not
+     */
+    @Override
+    public boolean contains(Event event) {
+        return calendar.contains(event);
+    }
+
+    /**
+     * Lists the events of the shard in the order of one report; events
+     * that tie on the order are listed by sequence number
+     * @param order the order
+     * @return the events with their sequence numbers
+     */
+    @Override
+    public List<Entry> eventsInOrder(Order order) {
+        List<Entry> entries = new ArrayList<>(sequences.size());
+        sequences.forEach((event, sequence) ->
+                entries.add(new Entry(event, sequence)));
+        entries.sort(order.entries());
+        return entries;
+    }
+
+    /**
+     * Returns the highest sequence number an event was ever added to the
+     * shard with; removing the event does not lower it
+     * @return the highest sequence number, -1 if nothing was ever added
+     */
+    @Override
+    public long lastSequence() {
+        return lastSequence;
+    }
+}
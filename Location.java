@@ -14,6 +14,7 @@ public enum Location {
 
     private final String building;
     private final String campus;
+    private final String label; // precomputed toString()
 
     /**
      * Creates predefined Location objects with building and campus
@@ -23,6 +24,15 @@ public enum Location {
     Location(String building, String campus) {
         this.building = building;
         this.campus = campus;
+        this.label = this.name() + " (" + building + ", " + campus + ")";
+    }
+
+    /**
+     * Returns the campus of the location
+     * @return campus name
+     */
+    public String getCampus() {
+        return this.campus;
     }
 
     /**
@@ -31,7 +41,7 @@ public enum Location {
      */
     @Override
     public String toString() {
-        return this.name() + " (" + this.building + ", " + this.campus + ")";
+        return this.label;
     }
 }
 
@@ -0,0 +1,224 @@
+package eventorganizer;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Bitmap of booked (date, timeslot, location) cells
+ * Each day is one int holding a bit per timeslot and location, so a
+ * six-month window fits in under a kilobyte and every check is O(1)
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class OccupancyMap {
+    private int[] days; // booked cells, one int per day from firstDay
+    private int firstDay; // epoch day of days[0]
+    private int numBooked; // number of booked cells
+
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private static final int ROOM_MASK = (1 << LOCATIONS.length) - 1;
+    private static final int INITIAL_DAYS = 192;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int NOT_STARTED = Integer.MIN_VALUE;
+
+    /**
+     * Creates an empty bitmap that sizes itself around the first booking
+     */
+    public OccupancyMap() {
+        days = new int[INITIAL_DAYS];
+        firstDay = NOT_STARTED;
+    }
+
+    /**
+     * Books a cell if it is free
+     * @param date the date of the cell
+     * @param timeslot the timeslot of the cell
+     * @param location the location of the cell
+     * @return true if the cell was free and is now booked,
+     *         false if it was already booked
+     */
+    public boolean occupy(Date date, Timeslot timeslot, Location location) {
+        int offset = reserve(date.toEpochDay());
+        int bit = bit(timeslot, location);
+        if ((days[offset] & bit) != 0) {
+            return false;
+        }
+        days[offset] |= bit;
+        ++numBooked;
+        return true;
+    }
+
+    /**
+     * Frees a booked cell
+     * @param date the date of the cell
+     * @param timeslot the timeslot of the cell
+     * @param location the location of the cell
+     * @return true if the cell was booked, false if it was already free
+     */
+    public boolean release(Date date, Timeslot timeslot, Location location) {
+        int offset = offset(date);
+        int bit = bit(timeslot, location);
+        if (offset < 0 || offset >= days.length
+                || (days[offset] & bit) == 0) {
+            return false;
+        }
+        days[offset] &= ~bit;
+        --numBooked;
+        return true;
+    }
+
+    /**
+     * Checks whether a cell is booked
+     * @param date the date of the cell
+     * @param timeslot the timeslot of the cell
+     * @param location the location of the cell
+     * @return true if booked, false otherwise
+     */
+    public boolean isOccupied(Date date, Timeslot timeslot,
+                              Location location) {
+        return (roomsBooked(offset(date), timeslot)
+                & (1 << location.ordinal())) != 0;
+    }
+
+    /**
+     * Returns the locations that are free on a date at a timeslot
+     * @param date the date
+     * @param timeslot the timeslot
+     * @return the free locations
+     */
+    public EnumSet<Location> freeLocations(Date date, Timeslot timeslot) {
+        int booked = roomsBooked(offset(date), timeslot);
+        EnumSet<Location> free = EnumSet.noneOf(Location.class);
+        for (Location location: LOCATIONS) {
+            if ((booked & (1 << location.ordinal())) == 0) {
+                free.add(location);
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Finds the earliest free cell for a location between two dates,
+     * checking timeslots in order within each day
+     * @param location the location
+     * @param from the first date to check
+     * @param to the last date to check
+     * @return an event holding the date, timeslot, and location of the
+     *         free cell, or null if every cell in the range is booked
+     */
+    public Event firstFreeSlot(Location location, Date from, Date to) {
+        return firstFreeSlot(1 << location.ordinal(), from, to);
+    }
+
+    /**
+     * Finds the earliest cell between two dates at which any of the
+     * specified locations is free, checking timeslots in order within
+     * each day and locations in order within each timeslot
+     * @param locations the locations
+     * @param from the first date to check
+     * @param to the last date to check
+     * @return an event holding the date, timeslot, and location of the
+     *         free cell, or null if every cell in the range is booked
+     */
+    public Event firstFreeSlot(Set<Location> locations, Date from, Date to) {
+        int rooms = 0;
+        for (Location location: locations) {
+            rooms |= 1 << location.ordinal();
+        }
+        return firstFreeSlot(rooms, from, to);
+    }
+
+    /**
+     * Returns the number of booked cells
+     * @return number of booked cells
+     */
+    public int size() {
+        return numBooked;
+    }
+
+    /**
+     * Finds the earliest cell between two dates at which any of the
+     * specified rooms is free
+     * @param rooms the rooms as a bit per location ordinal
+     * @param from the first date to check
+     * @param to the last date to check
+     * @return an event holding the free cell, or null if there is none
+     */
+    private Event firstFreeSlot(int rooms, Date from, Date to) {
+        int first = from.toEpochDay(), last = to.toEpochDay();
+        for (int day = first; day <= last; ++day) {
+            int offset = day - firstDay;
+            for (Timeslot timeslot: TIMESLOTS) {
+                int free = rooms & ~roomsBooked(offset, timeslot);
+                if (free != 0) {
+                    return new Event(Date.fromEpochDay(day), timeslot,
+                            LOCATIONS[Integer.numberOfTrailingZeros(free)]);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the bit of a timeslot and location within a day
+     * @param timeslot the timeslot
+     * @param location the location
+     * @return the bit
+     */
+    private static int bit(Timeslot timeslot, Location location) {
+        return 1 << (timeslot.ordinal() * LOCATIONS.length
+                + location.ordinal());
+    }
+
+    /**
+     * Returns the locations booked at a timeslot on a day as a bit per
+     * location ordinal
+     * @param offset the day, relative to firstDay
+     * @param timeslot the timeslot
+     * @return the booked locations, 0 if the day is outside the bitmap
+     */
+    private int roomsBooked(int offset, Timeslot timeslot) {
+        if (firstDay == NOT_STARTED || offset < 0 || offset >= days.length) {
+            return 0;
+        }
+        return (days[offset] >>> (timeslot.ordinal() * LOCATIONS.length))
+                & ROOM_MASK;
+    }
+
+    /**
+     * Returns the offset of a date within the bitmap
+     * @param date the date
+     * @return the offset, which may be outside the bitmap
+     */
+    private int offset(Date date) {
+        return (firstDay == NOT_STARTED) ? -1
+                : date.toEpochDay() - firstDay;
+    }
+
+    /**
+     * Grows the bitmap so it covers a day, in either direction
+     * @param epochDay the day to cover
+     * @return the offset of the day within the bitmap
+     */
+    private int reserve(int epochDay) {
+        if (firstDay == NOT_STARTED) {
+            firstDay = epochDay;
+        }
+        int offset = epochDay - firstDay;
+        if (offset >= days.length) {
+            int length = Math.max(days.length * GROWTH_FACTOR, offset + 1);
+            int[] larger = new int[length];
+            System.arraycopy(days, 0, larger, 0, days.length);
+            days = larger;
+        }
+        else if (offset < 0) {
+            int shift = Math.max(days.length, -offset);
+            int[] larger = new int[days.length + shift];
+            System.arraycopy(days, 0, larger, shift, days.length);
+            days = larger;
+            firstDay -= shift;
+            offset += shift;
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,129 @@
+package eventorganizer;
+
+import java.util.List;
+
+/**
+ * A calendar that also rejects a booking whose time overlaps another
+ * booking in the same room, not just one in the same timeslot
+ * Each event occupies its room from its start time until its duration
+ * has passed; an IntervalIndex beside the underlying calendar finds any
+ * overlap in O(log n)
+ * Like EventCalendar, it is not safe for concurrent use
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class OverlapCheckingCalendar implements EventStore {
+    private final EventStore calendar; // holds and prints the events
+    private final IntervalIndex intervals; // the time each event occupies
+
+    /**
+     * Creates an overlap-checking calendar over an empty calendar
+     * @param calendar the calendar that holds the events, which must be
+     *                 empty and only changed through this object
+     */
+    public OverlapCheckingCalendar(EventStore calendar) {
+        this.calendar = calendar;
+        this.intervals = new IntervalIndex();
+    }
+
+    /**
+     * Adds an event unless its date, timeslot, and location are already
+     * booked or its time overlaps another event in the same room
+     * @param  event the event to be added
+     * @return true if event is successfully added,
+     *         false if the event is already in the list or overlaps
+     *         another event
+     */
+    @Override
+    public boolean add(Event event) {
+        if (intervals.findOverlap(event) != null || !calendar.add(event)) {
+            return false;
+        }
+        intervals.add(event);
+        return true;
+    }
+
+    /**
+     * Deletes the specified event from the list if it exists
+     * @param  event the event to be deleted
+     * @return true if event is successfully deleted,
+     *         false if event is not found in list
+     */
+    @Override
+    public boolean remove(Event event) {
+        if (!calendar.remove(event)) {
+            return false;
+        }
+        intervals.remove(event);
+        return true;
+    }
+
+    /**
+     * Checks whether an event exists in the list
+     * @param  event the event to be searched
+     * @return true if list contains specified event, false if not
+     */
+    @Override
+    public boolean contains(Event event) {
+        return calendar.contains(event);
+    }
+
+    /**
+     * Finds an event in the same room whose time overlaps the time of
+     * the specified event
+     * @param event the event to be checked
+     * @return the overlapping event, or null if there is none
+     */
+    public Event findOverlap(Event event) {
+        return intervals.findOverlap(event);
+    }
+
+    /**
+     * Returns the events in a room whose time overlaps part of a period
+     * of one day, ordered by start time
+     * @param location the room
+     * @param date the date
+     * @param fromMinute the start of the period, in minutes from midnight
+     * @param toMinute the end of the period, exclusive
+     * @return the events in the room during the period
+     */
+    public List<Event> eventsIn(Location location, Date date,
+                                int fromMinute, int toMinute) {
+        return intervals.eventsIn(location, date, fromMinute, toMinute);
+    }
+
+    /**
+     * Writes the events in insertion order to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void print(ReportWriter out) {
+        calendar.print(out);
+    }
+
+    /**
+     * Writes the events ordered by date and timeslot to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByDate(ReportWriter out) {
+        calendar.printByDate(out);
+    }
+
+    /**
+     * Writes the events ordered by campus and building/room to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByCampus(ReportWriter out) {
+        calendar.printByCampus(out);
+    }
+
+    /**
+     * Writes the events ordered by department to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByDepartment(ReportWriter out) {
+        calendar.printByDepartment(out);
+    }
+}
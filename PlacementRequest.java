@@ -0,0 +1,89 @@
+package eventorganizer;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A department's request for a number of events of one duration, each
+ * in any of a set of rooms on any date within a window, for
+ * EventScheduler to place
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class PlacementRequest {
+    private final Contact contact; // organizer of every event placed
+    private final int duration; // duration of each event in minutes
+    private final Set<Location> rooms; // acceptable locations
+    private final Date from; // first acceptable date
+    private final Date to; // last acceptable date
+    private final int sessions; // number of events requested
+
+    /**
+     * Creates a placement request
+     * @param contact the organizer of the events
+     * @param duration the duration of each event in minutes
+     * @param rooms the acceptable locations
+     * @param from the first acceptable date
+     * @param to the last acceptable date
+     * @param sessions the number of events requested
+     */
+    public PlacementRequest(Contact contact, int duration,
+                            Set<Location> rooms, Date from, Date to,
+                            int sessions) {
+        this.contact = contact;
+        this.duration = duration;
+        this.rooms = Collections.unmodifiableSet(rooms.isEmpty()
+                ? EnumSet.noneOf(Location.class) : EnumSet.copyOf(rooms));
+        this.from = from;
+        this.to = to;
+        this.sessions = sessions;
+    }
+
+    /**
+     * Returns the organizer of the events
+     * @return contact
+     */
+    public Contact getContact() {
+        return contact;
+    }
+
+    /**
+     * Returns the duration of each event
+     * @return duration in minutes
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the acceptable locations
+     * @return the locations
+     */
+    public Set<Location> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Returns the first acceptable date
+     * @return from date
+     */
+    public Date getFrom() {
+        return from;
+    }
+
+    /**
+     * Returns the last acceptable date
+     * @return to date
+     */
+    public Date getTo() {
+        return to;
+    }
+
+    /**
+     * Returns the number of events requested
+     * @return number of sessions
+     */
+    public int getSessions() {
+        return sessions;
+    }
+}
@@ -0,0 +1,154 @@
+package eventorganizer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A shard of a ShardedCalendar served by a ShardServer in another JVM,
+ * reached over a loopback connection
+ * Each call is one request and one answer on the connection; calls are
+ * synchronized, so one instance can be shared by several threads
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class RemoteShard implements CalendarShard, Closeable {
+    private final Socket socket; // the connection to the server
+    private final DataInputStream in; // answers from the server
+    private final DataOutputStream out; // requests to the server
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Connects to a shard server on the loopback address
+     * @param port the port the server listens on
+     * @throws IOException if the server cannot be reached
+     */
+    public RemoteShard(int port) throws IOException {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(
+                socket.getInputStream(), BUFFER_SIZE));
+        this.out = new DataOutputStream(new BufferedOutputStream(
+                socket.getOutputStream(), BUFFER_SIZE));
+    }
+
+    /**
+     * Adds an event unless one with the same date, timeslot, and
+     * location is already in the shard
+     * @param  event the event to be added, which has a contact
+     * @param  sequence the sequence number of the add
+     * @return true if event is successfully added,
+     *         false if the event is already in the shard
+     */
+    @Override
+    public synchronized boolean add(Event event, long sequence) {
+        try {
+            out.writeByte(ShardServer.ADD);
+            ShardServer.writeEvent(out, event);
+            out.writeLong(sequence);
+            out.flush();
+            return in.readBoolean();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes the specified event from the shard if it exists
+     * @param  event the event to be deleted
+     * @return true if event is successfully deleted,
+     *         false if event is not found in the shard
+     */
+    @Override
+    public synchronized boolean remove(Event event) {
+        return ask(ShardServer.REMOVE, event);
+    }
+
+    /**
+     * Checks whether an event exists in the shard
+     * @param  event the event to be searched
+     * @return true if shard contains specified event, false if not
+     */
+    @Override
+    public synchronized boolean contains(Event event) {
+        return ask(ShardServer.CONTAINS, event);
+    }
+
+    /**
+     * Lists the events of the shard in the order of one report
+     * @param order the order
+     * @return the events with their sequence numbers
+     */
+    @Override
+    public synchronized List<Entry> eventsInOrder(Order order) {
+        try {
+            out.writeByte(ShardServer.LIST);
+            out.writeByte(order.ordinal());
+            out.flush();
+            int size = in.readInt();
+            List<Entry> entries = new ArrayList<>(size);
+            for (int i = 0; i < size; ++i) {
+                Event event = ShardServer.readEvent(in);
+                entries.add(new Entry(event, in.readLong()));
+            }
+            return entries;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the highest sequence number an event was ever added to the
+     * shard with
+     * @return the highest sequence number, -1 if nothing was ever added
+     */
+    @Override
+    public synchronized long lastSequence() {
+        try {
+            out.writeByte(ShardServer.SEQUENCE);
+            out.flush();
+            return in.readLong();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the connection
+     * @throws IOException if the connection cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * Sends a request about the date, timeslot, and location of an event
+     * and reads the answer
+     * @param operation the operation requested
+     * @param event the event
+     * @return the answer
+     */
+    private boolean ask(byte operation, Event event) {
+        try {
+            out.writeByte(operation);
+            ShardServer.writeCell(out, event);
+            out.flush();
+            return in.readBoolean();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package eventorganizer;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Collects report lines in a reusable buffer and writes them to the
+ * underlying Writer in large chunks instead of one write per line
+ * Long runs of events can be formatted in parallel: each task renders a
+ * chunk of events into its own buffer and the chunks are appended in
+ * order, so the text is the same as when formatted one by one
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class ReportWriter implements Flushable {
+    private final Writer out; // where the buffered text is written
+    private final StringBuilder buffer; // text not yet written
+    private char[] chunk; // reusable copy of the buffer handed to out
+    private final int bufferSize; // buffered length that triggers a write
+    private ForkJoinPool pool; // formats events in parallel, if set
+    private StringBuilder[] chunks; // one buffer per parallel task
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    private static final int EVENTS_PER_TASK = 2048;
+    private static final int TASKS_PER_THREAD = 4;
+    private static final int CHUNK_SIZE = EVENTS_PER_TASK * 160;
+    private static final String NEW_LINE = System.lineSeparator();
+
+    private static PrintStream consoleStream; // System.out when cached
+    private static ReportWriter console; // cached writer for System.out
+
+    /**
+     * Creates a ReportWriter with the default buffer size
+     * @param out the writer that receives the report text
+     */
+    public ReportWriter(Writer out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a ReportWriter that writes once the buffer reaches the
+     * specified size
+     * @param out the writer that receives the report text
+     * @param bufferSize number of buffered characters that triggers a write
+     */
+    public ReportWriter(Writer out, int bufferSize) {
+        this.out = out;
+        this.bufferSize = bufferSize;
+        this.buffer = new StringBuilder(bufferSize + bufferSize / 2);
+        this.chunk = new char[bufferSize + bufferSize / 2];
+    }
+
+    /**
+     * Creates a ReportWriter over an output stream using the default charset
+     * @param out the stream that receives the report text
+     */
+    public ReportWriter(OutputStream out) {
+        this(new OutputStreamWriter(out));
+    }
+
+    /**
+     * Returns the shared ReportWriter for the console, creating a new one
+     * if System.out has been replaced since the last call
+     * @return writer for System.out
+     */
+    public static ReportWriter console() {
+        if (console == null || consoleStream != System.out) {
+            consoleStream = System.out;
+            console = new ReportWriter(consoleStream);
+        }
+        return console;
+    }
+
+    /**
+     * Appends a line of text to the report
+     * @param line the text of the line
+     */
+    public void println(String line) {
+        buffer.append(line).append(NEW_LINE);
+        writeIfFull();
+    }
+
+    /**
+     * Appends an event as a line, rendering it directly into the buffer
+     * @param event the event to be written
+     */
+    public void println(Event event) {
+        event.appendTo(buffer).append(NEW_LINE);
+        writeIfFull();
+    }
+
+    /**
+     * Appends each event as a line, in order
+     * If a pool has been set with formatInParallel(), the events are
+     * taken in batches, and the chunks of each batch are formatted on
+     * the pool at once and then appended in order
+     * @param events the events to be written
+     */
+    public void printlnAll(Iterator<Event> events) {
+        if (pool == null || pool.getParallelism() < 2) {
+            while (events.hasNext()) {
+                println(events.next());
+            }
+            return;
+        }
+        int numTasks = pool.getParallelism() * TASKS_PER_THREAD;
+        if (chunks == null || chunks.length < numTasks) {
+            chunks = new StringBuilder[numTasks];
+        }
+        Event[] batch = new Event[numTasks * EVENTS_PER_TASK];
+        while (events.hasNext()) {
+            int count = 0;
+            while (count < batch.length && events.hasNext()) {
+                batch[count] = events.next();
+                ++count;
+            }
+            printlnInParallel(batch, count);
+        }
+    }
+
+    /**
+     * Formats events on the pool, then appends them in their order
+     * @param batch the events to be written
+     * @param count the number of events in the batch
+     */
+    private void printlnInParallel(Event[] batch, int count) {
+        int numTasks = (count + EVENTS_PER_TASK - 1) / EVENTS_PER_TASK;
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[numTasks];
+        for (int i = 0; i < numTasks; ++i) {
+            if (chunks[i] == null) {
+                chunks[i] = new StringBuilder(CHUNK_SIZE);
+            }
+            StringBuilder chunk = chunks[i];
+            int from = i * EVENTS_PER_TASK;
+            int to = Math.min(from + EVENTS_PER_TASK, count);
+            tasks[i] = pool.submit(() -> {
+                chunk.setLength(0);
+                for (int j = from; j < to; ++j) {
+                    batch[j].appendTo(chunk).append(NEW_LINE);
+                }
+            });
+        }
+        for (int i = 0; i < numTasks; ++i) {
+            tasks[i].join();
+            buffer.append(chunks[i]);
+            writeIfFull();
+        }
+    }
+
+    /**
+     * Formats long runs of events passed to printlnAll() on a pool
+     * @param pool the pool to format on, or null to format on the
+     *             calling thread
+     */
+    public void formatInParallel(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Appends the string representation of an object as a line
+     * @param obj the object to be written
+     */
+    public void println(Object obj) {
+        buffer.append(obj).append(NEW_LINE);
+        writeIfFull();
+    }
+
+    /**
+     * Writes all buffered text and flushes the underlying writer
+     */
+    @Override
+    public void flush() {
+        write();
+        try {
+            out.flush();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the buffered text once it reaches the buffer size
+     */
+    private void writeIfFull() {
+        if (buffer.length() >= bufferSize) {
+            write();
+        }
+    }
+
+    /**
+     * Writes the buffered text to the underlying writer and empties
+     * the buffer for reuse
+     */
+    private void write() {
+        int length = buffer.length();
+        if (length == 0) {
+            return;
+        }
+        if (chunk.length < length) {
+            chunk = new char[length];
+        }
+        buffer.getChars(0, length, chunk, 0);
+        try {
+            out.write(chunk, 0, length);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.setLength(0);
+    }
+}
@@ -1,15 +1,132 @@
 package eventorganizer;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Driver class to run software
  * @author Jeeva Ramasamy, Parth Patel
  */
 public class RunProject1 {
+    private static final String SERVER_MODE = "server";
+    private static final String SNAPSHOT_MODE = "snapshot";
+    private static final String JOURNAL_MODE = "journal";
+    private static final String PARALLEL_MODE = "parallel";
+    private static final String COLUMNAR_MODE = "columnar";
+    private static final String OVERLAP_MODE = "overlap";
+    private static final String SHARD_MODE = "shard";
+    private static final String SHARDED_MODE = "sharded";
+    private static final String VERSIONED_MODE = "versioned";
+
     /**
-     * Invokes EventOrganizer to run the program
-     * @param args command line arguments
+     * Invokes EventOrganizer to run the program, or runs EventServer
+     * when the first argument is "server"
+     * With "snapshot file", the calendar is loaded from the file if it
+     * exists and saved back to it when the program ends
+     * With "journal snapshot journal", every accepted add and remove is
+     * journaled as it happens, and the journal is folded into the
+     * snapshot when the program ends
+     * With "parallel", large reports are formatted on all cores, and with
+     * "columnar", events are kept in a ColumnarEventCalendar
+     * With "overlap", a booking is also rejected if its time overlaps
+     * another booking in the same room, and with "versioned", reports
+     * are written from the latest version of a VersionedCalendar
+     * With "shard [port]", one shard of a sharded calendar is served on
+     * the port; with "sharded [port ...]", events are partitioned by
+     * campus across the shards served on the ports, or across one
+     * EventCalendar per campus in this process if no ports are given
+     * @param args command line arguments: none, server [port],
+     *             snapshot file, journal snapshot journal, parallel,
+     *             columnar, overlap, versioned, shard [port], or
+     *             sharded [port ...]
+     * @throws IOException if a server port cannot be bound, a shard
+     *         cannot be reached, or the snapshot cannot be read or
+     *         written
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals(SERVER_MODE)) {
+            EventServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 1 && args[0].equals(SNAPSHOT_MODE)) {
+            Path path = Paths.get(args[1]);
+            EventCalendar calendar = Files.exists(path)
+                    ? CalendarSnapshot.load(path) : new EventCalendar();
+            new EventOrganizer().run(calendar, System.in,
+                    ReportWriter.console());
+            CalendarSnapshot.save(calendar, path);
+            return;
+        }
+        if (args.length > 2 && args[0].equals(JOURNAL_MODE)) {
+            try (JournaledCalendar calendar = new JournaledCalendar(
+                    Paths.get(args[1]), Paths.get(args[2]))) {
+                new EventOrganizer().run(calendar, System.in,
+                        ReportWriter.console());
+                calendar.compact();
+            }
+            return;
+        }
+        if (args.length > 0 && args[0].equals(COLUMNAR_MODE)) {
+            new EventOrganizer().run(new ColumnarEventCalendar(), System.in,
+                    ReportWriter.console());
+            return;
+        }
+        if (args.length > 0 && args[0].equals(OVERLAP_MODE)) {
+            new EventOrganizer().run(
+                    new OverlapCheckingCalendar(new EventCalendar()),
+                    System.in, ReportWriter.console());
+            return;
+        }
+        if (args.length > 0 && args[0].equals(VERSIONED_MODE)) {
+            new EventOrganizer().run(
+                    new VersionedCalendar(new EventCalendar()),
+                    System.in, ReportWriter.console());
+            return;
+        }
+        if (args.length > 0 && args[0].equals(SHARD_MODE)) {
+            ShardServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals(SHARDED_MODE)) {
+            runSharded(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals(PARALLEL_MODE)) {
+            ReportWriter.console().formatInParallel(ForkJoinPool.commonPool());
+        }
         new EventOrganizer().run();
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs EventOrganizer on a calendar sharded by campus
+     * @param ports the ports of the shard servers, or none to keep one
+     *              LocalShard per campus in this process
+     * @throws IOException if a shard cannot be reached
+     */
+    private static void runSharded(String[] ports) throws IOException {
+        int numShards = (ports.length > 0) ? ports.length
+                : ShardedCalendar.numCampuses();
+        CalendarShard[] shards = new CalendarShard[numShards];
+        try {
+            for (int i = 0; i < numShards; ++i) {
+                shards[i] = (ports.length > 0)
+                        ? new RemoteShard(Integer.parseInt(ports[i]))
+                        : new LocalShard();
+            }
+            new EventOrganizer().run(new ShardedCalendar(
+                    ShardedCalendar.byCampus(), shards), System.in,
+                    ReportWriter.console());
+        }
+        finally {
+            for (CalendarShard shard: shards) {
+                if (shard instanceof RemoteShard) {
+                    ((RemoteShard) shard).close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package eventorganizer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Serves one shard of a ShardedCalendar to RemoteShard clients over TCP
+ * on the loopback address, so that shards can run in separate JVMs
+ * Each request is one byte naming the operation followed by its event;
+ * an event is sent as its packed date, timeslot, and location, followed
+ * for an add or a listing by its department, duration, email, and the
+ * sequence number of its add; a sequence request has no event and is
+ * answered with the highest sequence number the shard holds
+ * Requests from all connections are applied to the shard one at a time
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class ShardServer implements Closeable {
+    private final ServerSocket serverSocket; // accepts router connections
+    private final CalendarShard shard; // the shard, guarded by itself
+    private final ExecutorService sessions; // runs one task per connection
+    private final Thread acceptor; // thread accepting connections
+
+    static final byte ADD = 'A';
+    static final byte REMOVE = 'R';
+    static final byte CONTAINS = 'C';
+    static final byte LIST = 'L';
+    static final byte SEQUENCE = 'S';
+
+    private static final int DEFAULT_PORT = 5151;
+    private static final int BACKLOG = 64;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Department[] DEPARTMENTS = Department.values();
+    private static final CalendarShard.Order[] ORDERS =
+            CalendarShard.Order.values();
+
+    /**
+     * Creates a server on the loopback address for the specified shard;
+     * call start() to accept connections
+     * @param port the port to listen on, 0 for any free port
+     * @param shard the shard, only changed through this server
+     * @throws IOException if the port cannot be bound
+     */
+    public ShardServer(int port, CalendarShard shard) throws IOException {
+        this.serverSocket = new ServerSocket(port, BACKLOG,
+                InetAddress.getLoopbackAddress());
+        this.shard = shard;
+        this.sessions = EventServer.newThreadPerTaskExecutor();
+        this.acceptor = new Thread(this::acceptConnections, "shard-server");
+    }
+
+    /**
+     * Starts accepting connections in the background
+     */
+    public void start() {
+        acceptor.start();
+    }
+
+    /**
+     * Returns the port the server is listening on
+     * @return port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections and ends the connections in progress
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+
+    /**
+     * Writes the date, timeslot, and location of an event
+     * @param out the stream to write to
+     * @param event the event
+     * @throws IOException if the event cannot be written
+     */
+    static void writeCell(DataOutput out, Event event) throws IOException {
+        out.writeInt(event.getDate().getPacked());
+        out.writeByte(event.getStartTime().ordinal());
+        out.writeByte(event.getLocation().ordinal());
+    }
+
+    /**
+     * Writes an event with its contact and duration
+     * @param out the stream to write to
+     * @param event the event, which has a contact
+     * @throws IOException if the event cannot be written
+     */
+    static void writeEvent(DataOutput out, Event event) throws IOException {
+        writeCell(out, event);
+        out.writeByte(event.getContact().getDepartment().ordinal());
+        out.writeShort(event.getDuration());
+        out.writeUTF(event.getContact().getEmail());
+    }
+
+    /**
+     * Reads the date, timeslot, and location of an event
+     * @param in the stream to read from
+     * @return an event with no contact
+     * @throws IOException if the event cannot be read
+     */
+    static Event readCell(DataInput in) throws IOException {
+        Date date = Date.fromPacked(in.readInt());
+        Timeslot timeslot = TIMESLOTS[in.readByte()];
+        return new Event(date, timeslot, LOCATIONS[in.readByte()]);
+    }
+
+    /**
+     * Reads an event written by writeEvent, interning its contact
+     * @param in the stream to read from
+     * @return the event
+     * @throws IOException if the event cannot be read
+     */
+    static Event readEvent(DataInput in) throws IOException {
+        Event cell = readCell(in);
+        Department department = DEPARTMENTS[in.readByte()];
+        int duration = in.readShort();
+        Contact contact = ContactRegistry.shared().intern(department,
+                in.readUTF());
+        return new Event(cell.getDate(), cell.getStartTime(),
+                cell.getLocation(), contact, duration);
+    }
+
+    /**
+     * Accepts connections until the server is closed, serving each one
+     * on its own thread
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sessions.execute(() -> serve(socket));
+            }
+            catch (SocketException e) {
+                return; // closed
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Answers the requests of one connection until it is closed
+     * @param socket the connection
+     */
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    socket.getInputStream(), BUFFER_SIZE));
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(socket.getOutputStream(),
+                            BUFFER_SIZE));
+            int operation;
+            while ((operation = in.read()) >= 0) {
+                answer(operation, in, out);
+                out.flush();
+            }
+        }
+        catch (EOFException | SocketException e) {
+            // the router went away; nothing to report back to
+        }
+        catch (IOException | RuntimeException e) {
+            System.err.println("Shard connection ended: " + e);
+        }
+    }
+
+    /**
+     * Applies one request to the shard and writes the answer
+     * @param operation the operation requested
+     * @param in the stream the rest of the request is read from
+     * @param out the stream the answer is written to
+     * @throws IOException if the request cannot be read or answered
+     */
+    private void answer(int operation, DataInputStream in,
+                        DataOutputStream out) throws IOException {
+        switch (operation) {
+            case ADD: {
+                Event event = readEvent(in);
+                long sequence = in.readLong();
+                synchronized (shard) {
+                    out.writeBoolean(shard.add(event, sequence));
+                }
+                break;
+            }
+            case REMOVE: {
+                Event event = readCell(in);
+                synchronized (shard) {
+                    out.writeBoolean(shard.remove(event));
+                }
+                break;
+            }
+            case CONTAINS: {
+                Event event = readCell(in);
+                synchronized (shard) {
+                    out.writeBoolean(shard.contains(event));
+                }
+                break;
+            }
+            case LIST: {
+                CalendarShard.Order order = ORDERS[in.readByte()];
+                List<CalendarShard.Entry> entries;
+                synchronized (shard) {
+                    entries = shard.eventsInOrder(order);
+                }
+                out.writeInt(entries.size());
+                for (CalendarShard.Entry entry: entries) {
+                    writeEvent(out, entry.getEvent());
+                    out.writeLong(entry.getSequence());
+                }
+                break;
+            }
+            case SEQUENCE: {
+                synchronized (shard) {
+                    out.writeLong(shard.lastSequence());
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unknown shard request " + operation);
+        }
+    }
+
+    /**
+     * Runs a LocalShard until the process is stopped
+     * @param args optional port, 5151 if not specified
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0])
+                : DEFAULT_PORT;
+        ShardServer server = new ShardServer(port, new LocalShard());
+        server.start();
+        System.out.println("Calendar shard listening on "
+                + server.getPort());
+    }
+}
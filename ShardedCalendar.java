@@ -0,0 +1,435 @@
+package eventorganizer;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * A calendar partitioned into independent shards, by campus or by any
+ * other key of an event
+ * A router sends each add, remove, and lookup to the one shard its
+ * event belongs to; a report lists the events of every shard in its
+ * order and merges the lists, so only the shards hold any events
+ * Each add is given the next number of one sequence across all shards,
+ * which a new router continues after the highest number its shards hold;
+ * the insertion-order report merges the shards by that number, and the
+ * other reports write events that tie on their order by it, so every
+ * report lists the events as one EventCalendar would
+ * Like EventCalendar, it is not safe for concurrent use
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class ShardedCalendar implements EventStore {
+    private final CalendarShard[] shards; // the partitions
+    private final ToIntFunction<Event> router; // event -> shard number
+    private long nextSequence; // sequence number of the next add
+
+    private static final Location[] LOCATIONS = Location.values();
+    private static final int[] CAMPUS_OF = campusNumbers();
+    private static final long NO_SEQUENCE = -1;
+    private static final int TEST_EVENTS = 18;
+
+    /**
+     * Creates a calendar over shards, numbering its adds after those the
+     * shards already hold
+     * @param router gives the number of the shard an event belongs to,
+     *               taken modulo the number of shards; it may only look
+     *               at the date, timeslot, and location of the event
+     * @param shards the shards, which must only be changed through this
+     *               object
+     */
+    public ShardedCalendar(ToIntFunction<Event> router,
+                           CalendarShard... shards) {
+        if (shards.length == 0) {
+            throw new IllegalArgumentException("At least one shard needed");
+        }
+        this.shards = shards.clone();
+        this.router = router;
+        long lastSequence = NO_SEQUENCE;
+        for (CalendarShard shard: shards) {
+            lastSequence = Math.max(lastSequence, shard.lastSequence());
+        }
+        this.nextSequence = lastSequence + 1;
+    }
+
+    /**
+     * Returns a router that sends each event to the shard of its campus,
+     * numbering campuses in the order they first appear in Location
+     * @return the router
+     */
+    public static ToIntFunction<Event> byCampus() {
+        return event -> CAMPUS_OF[event.getLocation().ordinal()];
+    }
+
+    /**
+     * Returns the number of campuses, the number of shards byCampus()
+     * routes to
+     * @return number of campuses
+     */
+    public static int numCampuses() {
+        int campuses = 0;
+        for (int campus: CAMPUS_OF) {
+            campuses = Math.max(campuses, campus + 1);
+        }
+        return campuses;
+    }
+
+    /**
+     * Adds an event to its shard
+     * @param  event the event to be added
+     * @return true if event is successfully added,
+     *         false if the event is already in the calendar
+     */
+    @Override
+    public boolean add(Event event) {
+        return shardOf(event).add(event, nextSequence++);
+    }
+
+    /**
+     * Deletes the specified event from its shard if it exists
+     * @param  event the event to be deleted
+     * @return true if event is successfully deleted,
+     *         false if event is not found in the calendar
+     */
+    @Override
+    public boolean remove(Event event) {
+        return shardOf(event).remove(event);
+    }
+
+    /**
+     * Checks whether an event exists in its shard
+     * @param  event the event to be searched
+     * @return true if calendar contains specified event, false if not
+     */
+    @Override
+    public boolean contains(Event event) {
+        return shardOf(event).contains(event);
+    }
+
+    /**
+     * Writes the events of each shard in insertion order to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void print(ReportWriter out) {
+        printLists(out, "* Event calendar *",
+                CalendarShard.Order.INSERTION);
+    }
+
+    /**
+     * Writes the events ordered by date and timeslot to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByDate(ReportWriter out) {
+        printLists(out, "* Event calendar by event date and start time *",
+                CalendarShard.Order.DATE);
+    }
+
+    /**
+     * Writes the events ordered by campus and building/room to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByCampus(ReportWriter out) {
+        printLists(out, "* Event calendar by campus and building *",
+                CalendarShard.Order.CAMPUS);
+    }
+
+    /**
+     * Writes the events ordered by department to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByDepartment(ReportWriter out) {
+        printLists(out, "* Event calendar by department *",
+                CalendarShard.Order.DEPARTMENT);
+    }
+
+    /**
+     * Returns the shard an event belongs to
+     * @param event the event
+     * @return the shard
+     */
+    private CalendarShard shardOf(Event event) {
+        return shards[Math.floorMod(router.applyAsInt(event),
+                shards.length)];
+    }
+
+    /**
+     * Lists the events of every shard in one order
+     * @param order the order
+     * @return the events of each shard, by shard number
+     */
+    private List<List<CalendarShard.Entry>> list(CalendarShard.Order order) {
+        List<List<CalendarShard.Entry>> lists = new ArrayList<>(
+                shards.length);
+        for (CalendarShard shard: shards) {
+            lists.add(shard.eventsInOrder(order));
+        }
+        return lists;
+    }
+
+    /**
+     * Helper method used to write the events of every shard
+     * @param out the report the events are written to
+     * @param header the line written before the events
+     * @param order the order the events are listed and merged in
+     */
+    private void printLists(ReportWriter out, String header,
+                            CalendarShard.Order order) {
+        List<List<CalendarShard.Entry>> lists = list(order);
+        int size = 0;
+        for (List<CalendarShard.Entry> list: lists) {
+            size += list.size();
+        }
+        if (size == 0) {
+            out.println("Event calendar is empty!");
+            out.flush();
+            return;
+        }
+        out.println(header);
+        out.printlnAll(merge(lists, order.entries()));
+        out.println("* end of event calendar *");
+        out.flush();
+    }
+
+    /**
+     * Merges sorted lists; no two entries tie, as sequence numbers are
+     * unique
+     * @param lists the lists, each sorted by the order
+     * @param order the order
+     * @return an iterator over the events of all lists, in order
+     */
+    private static Iterator<Event> merge(
+            List<List<CalendarShard.Entry>> lists,
+            Comparator<CalendarShard.Entry> order) {
+        int[] positions = new int[lists.size()]; // next entry of each
+        PriorityQueue<Integer> heads = new PriorityQueue<>(lists.size(),
+                Comparator.comparing(
+                        list -> lists.get(list).get(positions[list]),
+                        order));
+        for (int i = 0; i < lists.size(); ++i) {
+            if (!lists.get(i).isEmpty()) {
+                heads.add(i);
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Event next() {
+                Integer list = heads.poll();
+                if (list == null) {
+                    throw new NoSuchElementException();
+                }
+                Event event = lists.get(list).get(positions[list]++)
+                        .getEvent();
+                if (positions[list] < lists.get(list).size()) {
+                    heads.add(list);
+                }
+                return event;
+            }
+        };
+    }
+
+    /**
+     * Numbers the campuses in the order they first appear in Location
+     * @return the campus number of each location, by ordinal
+     */
+    private static int[] campusNumbers() {
+        int[] campusOf = new int[LOCATIONS.length];
+        List<String> campuses = new ArrayList<>();
+        for (Location location: LOCATIONS) {
+            if (!campuses.contains(location.getCampus())) {
+                campuses.add(location.getCampus());
+            }
+            campusOf[location.ordinal()] = campuses.indexOf(
+                    location.getCampus());
+        }
+        return campusOf;
+    }
+
+    /**
+     * Test case #1
+     * Tests if the insertion-order report merges the shards by sequence
+     * number, as one calendar lists its events
+     */
+    private static void testMergedPrint() {
+        System.out.println("** Test case #1: P lists the events of all "
+                + "shards in the order they were added");
+        testReport(EventStore::print);
+    }
+
+    /**
+     * Test case #2
+     * Tests if the date report merges the shards by date and timeslot,
+     * breaking ties by sequence number
+     */
+    private static void testMergedPrintByDate() {
+        System.out.println("** Test case #2: PE merges the shards by date "
+                + "and timeslot, then by order added");
+        testReport(EventStore::printByDate);
+    }
+
+    /**
+     * Test case #3
+     * Tests if the campus report merges the shards by location, breaking
+     * ties by sequence number
+     */
+    private static void testMergedPrintByCampus() {
+        System.out.println("** Test case #3: PC merges the shards by "
+                + "location, then by order added");
+        testReport(EventStore::printByCampus);
+    }
+
+    /**
+     * Test case #4
+     * Tests if the department report merges the shards by department,
+     * breaking ties by sequence number across shards
+     */
+    private static void testMergedPrintByDepartment() {
+        System.out.println("** Test case #4: PD merges the shards by "
+                + "department, then by order added");
+        testReport(EventStore::printByDepartment);
+    }
+
+    /**
+     * Test case #5
+     * Tests if each event is held only by the shard of its campus
+     */
+    private static void testRouting() {
+        System.out.println("** Test case #5: each event is held by the "
+                + "shard of its campus only");
+        LocalShard[] shards = testShards();
+        applyTestChanges(new ShardedCalendar(byCampus(), shards));
+        int misplaced = 0;
+        for (int i = 0; i < TEST_EVENTS; ++i) {
+            Event event = testEvent(i);
+            for (int shard = 0; shard < shards.length; ++shard) {
+                boolean isHome = shard == CAMPUS_OF[event.getLocation()
+                        .ordinal()];
+                if (shards[shard].contains(event) && !isHome) {
+                    ++misplaced;
+                }
+            }
+        }
+        boolean expectedOutput = true, actualOutput = misplaced == 0;
+        Testbed.printResult(TEST_EVENTS + " events on " + shards.length
+                + " shards", expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test case #6
+     * Tests if a new router over shards that already hold events numbers
+     * its adds after theirs, so P lists a new add last
+     */
+    private static void testNewRouter() {
+        System.out.println("** Test case #6: a new router over the same "
+                + "shards lists its adds after the earlier ones");
+        LocalShard[] shards = testShards();
+        applyTestChanges(new ShardedCalendar(byCampus(), shards));
+        ShardedCalendar reopened = new ShardedCalendar(byCampus(), shards);
+        EventCalendar single = new EventCalendar();
+        applyTestChanges(single);
+        reopened.add(testEvent(TEST_EVENTS / 2));
+        single.add(testEvent(TEST_EVENTS / 2));
+        StringWriter shardedText = new StringWriter();
+        StringWriter singleText = new StringWriter();
+        reopened.print(new ReportWriter(shardedText));
+        single.print(new ReportWriter(singleText));
+        boolean expectedOutput = true, actualOutput = shardedText.toString()
+                .equals(singleText.toString());
+        Testbed.printResult("1 add after a new router", expectedOutput,
+                actualOutput);
+    }
+
+    /**
+     * Writes one report of a sharded calendar and of an EventCalendar
+     * given the same changes, and prints whether the two are the same
+     * @param report the report
+     */
+    private static void testReport(BiConsumer<EventStore, ReportWriter>
+                                           report) {
+        ShardedCalendar sharded = new ShardedCalendar(byCampus(),
+                testShards());
+        EventCalendar single = new EventCalendar();
+        applyTestChanges(sharded);
+        applyTestChanges(single);
+        StringWriter shardedText = new StringWriter();
+        StringWriter singleText = new StringWriter();
+        report.accept(sharded, new ReportWriter(shardedText));
+        report.accept(single, new ReportWriter(singleText));
+        boolean expectedOutput = true, actualOutput = shardedText.toString()
+                .equals(singleText.toString());
+        Testbed.printResult(TEST_EVENTS + " adds, 2 removed, 1 added again",
+                expectedOutput, actualOutput);
+    }
+
+    /**
+     * Makes one empty LocalShard per campus
+     * @return the shards
+     */
+    private static LocalShard[] testShards() {
+        LocalShard[] shards = new LocalShard[numCampuses()];
+        for (int i = 0; i < shards.length; ++i) {
+            shards[i] = new LocalShard();
+        }
+        return shards;
+    }
+
+    /**
+     * Adds the test events to a calendar, removes two, and adds the
+     * first back, so it is listed last
+     * @param calendar the calendar
+     */
+    private static void applyTestChanges(EventStore calendar) {
+        for (int i = 0; i < TEST_EVENTS; ++i) {
+            calendar.add(testEvent(i));
+        }
+        calendar.remove(testEvent(0));
+        calendar.remove(testEvent(TEST_EVENTS / 2));
+        calendar.add(testEvent(0));
+    }
+
+    /**
+     * Makes the event numbered i; consecutive events fall on different
+     * campuses, dates, and departments, so every report interleaves
+     * the shards
+     * @param i the number of the event
+     * @return the event
+     */
+    private static Event testEvent(int i) {
+        Department[] departments = Department.values();
+        Timeslot[] timeslots = Timeslot.values();
+        Department department = departments[i % departments.length];
+        return new Event(new Date(2024, 5, 1 + i * 7 % 10),
+                timeslots[i % timeslots.length],
+                LOCATIONS[i * 5 % LOCATIONS.length],
+                new Contact(department,
+                        department.name().toLowerCase() + "@rutgers.edu"),
+                60);
+    }
+
+    /**
+     * Testbed main used as the driver to test routing and the merged
+     * reports
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        testMergedPrint();
+        testMergedPrintByDate();
+        testMergedPrintByCampus();
+        testMergedPrintByDepartment();
+        testRouting();
+        testNewRouter();
+    }
+}
@@ -0,0 +1,27 @@
+package eventorganizer;
+
+import java.util.Objects;
+
+/**
+ * Prints the results of the test cases run by the testbed mains
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+final class Testbed {
+    private Testbed() {
+    }
+
+    /**
+     * Prints the result from a test case whether it passes or fails
+     * @param input the input being tested
+     * @param expectedOutput this is what the test case should return
+     * @param actualOutput this is what the test case returned
+     */
+    static void printResult(Object input, Object expectedOutput,
+                            Object actualOutput) {
+        System.out.println("Test Input: " + input);
+        System.out.println("Expected Input: " + expectedOutput + "  vs  "
+                + "Actual Input: " + actualOutput);
+        System.out.println(Objects.equals(expectedOutput, actualOutput)
+                ? "(PASS)" : "(FAIL)");
+    }
+}
@@ -12,6 +12,11 @@ public enum Timeslot {
     private final int hour;
     private final int minute;
     private final String am_pm;
+    private final String label; // precomputed toString()
+    private final int minuteOfDay; // minutes from midnight to the start
+
+    private static final int HOURS_IN_HALF_DAY = 12;
+    private static final int MINUTES_IN_HOUR = 60;
 
     /**
      * Creates a predefined timeslot with hour, minute, and am/pm
@@ -23,6 +28,11 @@ public enum Timeslot {
         this.hour = hour;
         this.minute = minute;
         this.am_pm = am_pm;
+        String min = (minute == 0) ? "00" : "" + minute;
+        this.label = hour + ":" + min + am_pm;
+        int hourOfDay = hour % HOURS_IN_HALF_DAY
+                + (am_pm.equals("pm") ? HOURS_IN_HALF_DAY : 0);
+        this.minuteOfDay = hourOfDay * MINUTES_IN_HOUR + minute;
     }
 
     /**
@@ -41,6 +51,15 @@ public enum Timeslot {
         return this.minute;
     }
 
+    /**
+     * Returns the number of minutes from midnight to the start of the
+     * timeslot
+     * @return minute of the day, from 0 to 1439
+     */
+    public int getMinuteOfDay() {
+        return this.minuteOfDay;
+    }
+
     /**
      * Checks whether the timeslot is AM or not
      * @return true if AM, false if not
@@ -55,7 +74,6 @@ public enum Timeslot {
      */
     @Override
     public String toString() {
-        String min = (this.minute == 0) ? "00" : "" + this.minute;
-        return this.hour + ":" + min + this.am_pm;
+        return this.label;
     }
 }
@@ -0,0 +1,455 @@
+package eventorganizer;
+
+import java.io.StringWriter;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A calendar that keeps its past versions, so a report can read a
+ * stable view while bookings continue and an audit can ask what the
+ * calendar looked like at a given time
+ * Every add or remove the underlying calendar accepts makes a new
+ * CalendarVersion, which shares all but O(log n) of its nodes with the
+ * version before it; versions are retained until there are more than
+ * the retention limit or they are older than the retention age, and the
+ * current version is always retained
+ * Changes are synchronized, while opening the current version and
+ * writing reports from it take no lock, so one instance can be shared by
+ * the sessions of an EventServer and reports never hold up bookings
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public class VersionedCalendar implements EventStore {
+    private final EventStore calendar; // holds and checks the events
+    private final Clock clock; // stamps each version
+    private final int maxVersions; // most versions retained
+    private final Duration maxAge; // oldest a retained version may be
+    private volatile CalendarVersion current; // the latest version
+    private CalendarVersion[] retained; // ring of versions, oldest first
+    private int oldest; // index of the oldest version in the ring
+    private int numRetained; // number of versions in the ring
+
+    private static final int DEFAULT_MAX_VERSIONS = 1 << 16;
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofDays(1);
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int TEST_EVENTS = 8;
+    private static final Instant TEST_START = Instant.parse(
+            "2024-01-01T12:00:00Z");
+
+    /**
+     * Creates a versioned calendar over an empty calendar, retaining up
+     * to 65536 versions from the last day
+     * @param calendar the calendar that holds the events, which must be
+     *                 empty and only changed through this object
+     */
+    public VersionedCalendar(EventStore calendar) {
+        this(calendar, DEFAULT_MAX_VERSIONS, DEFAULT_MAX_AGE,
+                Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates a versioned calendar over an empty calendar
+     * @param calendar the calendar that holds the events, which must be
+     *                 empty and only changed through this object
+     * @param maxVersions the most versions retained, at least 1
+     * @param maxAge the oldest a retained version other than the current
+     *               one may be
+     * @param clock the clock each version is stamped with
+     */
+    public VersionedCalendar(EventStore calendar, int maxVersions,
+                             Duration maxAge, Clock clock) {
+        if (maxVersions < 1) {
+            throw new IllegalArgumentException(
+                    "At least one version must be retained");
+        }
+        this.calendar = calendar;
+        this.clock = clock;
+        this.maxVersions = maxVersions;
+        this.maxAge = maxAge;
+        this.retained = new CalendarVersion[
+                Math.min(maxVersions, INITIAL_CAPACITY)];
+        retain(CalendarVersion.empty(clock.instant()));
+    }
+
+    /**
+     * Adds an event and makes a new version if it is accepted
+     * @param  event the event to be added
+     * @return true if event is successfully added,
+     *         false if the event is already in the list
+     */
+    @Override
+    public synchronized boolean add(Event event) {
+        if (!calendar.add(event)) {
+            return false;
+        }
+        retain(current.with(event, now()));
+        return true;
+    }
+
+    /**
+     * Deletes an event and makes a new version if it exists
+     * @param  event the event to be deleted
+     * @return true if event is successfully deleted,
+     *         false if event is not found in list
+     */
+    @Override
+    public synchronized boolean remove(Event event) {
+        if (!calendar.remove(event)) {
+            return false;
+        }
+        retain(current.without(event, now()));
+        return true;
+    }
+
+    /**
+     * Checks whether an event exists in the list
+     * @param  event the event to be searched
+     * @return true if list contains specified event, false if not
+     */
+    @Override
+    public synchronized boolean contains(Event event) {
+        return calendar.contains(event);
+    }
+
+    /**
+     * Returns the current version
+     * @return the latest version
+     */
+    public CalendarVersion snapshot() {
+        return current;
+    }
+
+    /**
+     * Returns a retained version
+     * @param version the version number
+     * @return the version, or null if it is not retained
+     */
+    public synchronized CalendarVersion snapshot(long version) {
+        long first = retainedAt(0).getVersion();
+        if (version < first || version > current.getVersion()) {
+            return null;
+        }
+        return retainedAt((int) (version - first));
+    }
+
+    /**
+     * Returns the version the calendar was at at the specified time:
+     * the latest retained version made at or before it
+     * @param time the time
+     * @return the version, or null if every retained version is later
+     */
+    public synchronized CalendarVersion asOf(Instant time) {
+        int low = 0, high = numRetained - 1;
+        CalendarVersion found = null;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            CalendarVersion version = retainedAt(middle);
+            if (version.getTimestamp().isAfter(time)) {
+                high = middle - 1;
+            }
+            else {
+                found = version;
+                low = middle + 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the number of versions retained, including the current one
+     * @return number of versions
+     */
+    public synchronized int retainedVersions() {
+        return numRetained;
+    }
+
+    /**
+     * Writes the events of the current version in insertion order to a
+     * report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void print(ReportWriter out) {
+        current.print(out);
+    }
+
+    /**
+     * Writes the events of the current version ordered by date and
+     * timeslot to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByDate(ReportWriter out) {
+        current.printByDate(out);
+    }
+
+    /**
+     * Writes the events of the current version ordered by campus and
+     * building/room to a report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByCampus(ReportWriter out) {
+        current.printByCampus(out);
+    }
+
+    /**
+     * Writes the events of the current version ordered by department to a
+     * report
+     * @param out the report the events are written to
+     */
+    @Override
+    public void printByDepartment(ReportWriter out) {
+        current.printByDepartment(out);
+    }
+
+    /**
+     * Returns the time to stamp a new version with, never earlier than
+     * the current version so that versions stay ordered by time
+     * @return the time
+     */
+    private Instant now() {
+        Instant time = clock.instant();
+        Instant latest = current.getTimestamp();
+        return time.isBefore(latest) ? latest : time;
+    }
+
+    /**
+     * Makes a version current and drops the versions the retention
+     * policy no longer covers
+     * @param version the new version
+     */
+    private void retain(CalendarVersion version) {
+        if (numRetained == maxVersions) {
+            drop();
+        }
+        if (numRetained == retained.length) {
+            grow();
+        }
+        retained[(oldest + numRetained) % retained.length] = version;
+        ++numRetained;
+        current = version;
+        Instant cutoff = version.getTimestamp().minus(maxAge);
+        while (numRetained > 1 && retainedAt(0).getTimestamp()
+                .isBefore(cutoff)) {
+            drop();
+        }
+    }
+
+    /**
+     * Drops the oldest retained version
+     */
+    private void drop() {
+        retained[oldest] = null;
+        oldest = (oldest + 1) % retained.length;
+        --numRetained;
+    }
+
+    /**
+     * Doubles the ring, up to the retention limit
+     */
+    private void grow() {
+        int capacity = (int) Math.min((long) retained.length
+                * GROWTH_FACTOR, maxVersions);
+        CalendarVersion[] larger = new CalendarVersion[capacity];
+        for (int i = 0; i < numRetained; ++i) {
+            larger[i] = retainedAt(i);
+        }
+        retained = larger;
+        oldest = 0;
+    }
+
+    /**
+     * Returns a retained version by its position
+     * @param index the position, 0 for the oldest
+     * @return the version
+     */
+    private CalendarVersion retainedAt(int index) {
+        return retained[(oldest + index) % retained.length];
+    }
+
+    /**
+     * Test case #1
+     * Tests if asOf() the time of a version returns that version, holding
+     * the events added before it and no later ones
+     */
+    private static void testAsOfVersionTime() {
+        System.out.println("** Test case #1: as of a version's time, the "
+                + "calendar holds only the events added by then");
+        VersionedCalendar calendar = testCalendar(DEFAULT_MAX_VERSIONS);
+        CalendarVersion version = calendar.asOf(TEST_START.plusSeconds(2));
+        boolean expectedOutput = true, actualOutput = version != null
+                && version.getVersion() == 2
+                && version.contains(testEvent(1))
+                && !version.contains(testEvent(2));
+        Testbed.printResult("as of version 2 of " + TEST_EVENTS, expectedOutput,
+                actualOutput);
+    }
+
+    /**
+     * Test case #2
+     * Tests if asOf() a time between two versions returns the earlier
+     */
+    private static void testAsOfBetweenVersions() {
+        System.out.println("** Test case #2: between two versions, the "
+                + "earlier one is returned");
+        VersionedCalendar calendar = testCalendar(DEFAULT_MAX_VERSIONS);
+        CalendarVersion version = calendar.asOf(
+                TEST_START.plusSeconds(3).plusMillis(500));
+        boolean expectedOutput = true, actualOutput = version != null
+                && version.getVersion() == 3;
+        Testbed.printResult("as of halfway from version 3 to 4", expectedOutput,
+                actualOutput);
+    }
+
+    /**
+     * Test case #3
+     * Tests if versions past the retention limit are dropped, while the
+     * retained ones can still be read
+     */
+    private static void testRetentionLimit() {
+        System.out.println("** Test case #3: only the latest versions are "
+                + "retained");
+        int maxVersions = 3;
+        VersionedCalendar calendar = testCalendar(maxVersions);
+        long current = calendar.snapshot().getVersion();
+        boolean expectedOutput = true, actualOutput =
+                calendar.retainedVersions() == maxVersions
+                && calendar.asOf(TEST_START.plusSeconds(1)) == null
+                && calendar.snapshot(current - maxVersions) == null
+                && calendar.snapshot(current - maxVersions + 1) != null;
+        Testbed.printResult(TEST_EVENTS + " changes, " + maxVersions
+                + " retained", expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test case #4
+     * Tests if a version still holds an event removed after it was made
+     */
+    private static void testVersionUnchangedByRemove() {
+        System.out.println("** Test case #4: a removal leaves earlier "
+                + "versions unchanged");
+        VersionedCalendar calendar = testCalendar(DEFAULT_MAX_VERSIONS);
+        CalendarVersion before = calendar.snapshot();
+        calendar.remove(testEvent(0));
+        boolean expectedOutput = true, actualOutput =
+                before.contains(testEvent(0))
+                && !calendar.snapshot().contains(testEvent(0))
+                && before.size() == calendar.snapshot().size() + 1;
+        Testbed.printResult("remove after version " + before.getVersion(),
+                expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test case #5
+     * Tests if an earlier version writes its reports the same as an
+     * EventCalendar holding the same events
+     */
+    private static void testAsOfReports() {
+        System.out.println("** Test case #5: an earlier version reports "
+                + "like a calendar of its events");
+        VersionedCalendar calendar = testCalendar(DEFAULT_MAX_VERSIONS);
+        calendar.remove(testEvent(1));
+        int numEvents = TEST_EVENTS - 2;
+        CalendarVersion version = calendar.asOf(
+                TEST_START.plusSeconds(numEvents));
+        EventCalendar expected = new EventCalendar();
+        for (int i = 0; i < numEvents; ++i) {
+            expected.add(testEvent(i));
+        }
+        StringWriter versionText = new StringWriter();
+        StringWriter expectedText = new StringWriter();
+        render(version, new ReportWriter(versionText));
+        ReportWriter out = new ReportWriter(expectedText);
+        expected.print(out);
+        expected.printByDate(out);
+        expected.printByCampus(out);
+        expected.printByDepartment(out);
+        boolean expectedOutput = true, actualOutput = versionText.toString()
+                .equals(expectedText.toString());
+        Testbed.printResult("as of version " + numEvents + ", after a removal",
+                expectedOutput, actualOutput);
+    }
+
+    /**
+     * Writes every report of a version
+     * @param version the version
+     * @param out the report the events are written to
+     */
+    private static void render(CalendarVersion version, ReportWriter out) {
+        version.print(out);
+        version.printByDate(out);
+        version.printByCampus(out);
+        version.printByDepartment(out);
+    }
+
+    /**
+     * Makes a versioned calendar of TEST_EVENTS adds, on a clock that
+     * stamps version n at TEST_START plus n seconds
+     * @param maxVersions the most versions retained
+     * @return the calendar
+     */
+    private static VersionedCalendar testCalendar(int maxVersions) {
+        Clock clock = new Clock() {
+            private Instant next = TEST_START; // the next instant given
+
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Instant instant() {
+                Instant time = next;
+                next = next.plusSeconds(1);
+                return time;
+            }
+        };
+        VersionedCalendar calendar = new VersionedCalendar(
+                new EventCalendar(), maxVersions, DEFAULT_MAX_AGE, clock);
+        for (int i = 0; i < TEST_EVENTS; ++i) {
+            calendar.add(testEvent(i));
+        }
+        return calendar;
+    }
+
+    /**
+     * Makes the event numbered i; events share dates and timeslots, are
+     * added out of location order, and span departments, so every report
+     * has ties to break
+     * @param i the number of the event
+     * @return the event
+     */
+    private static Event testEvent(int i) {
+        Location[] locations = Location.values();
+        Department[] departments = Department.values();
+        Date date = new Date(2024, 4, 10 - i / locations.length);
+        Department department = departments[i % departments.length];
+        return new Event(date, Timeslot.AFTERNOON,
+                locations[locations.length - 1 - i % locations.length],
+                new Contact(department,
+                        department.name().toLowerCase() + "@rutgers.edu"),
+                60);
+    }
+
+    /**
+     * Testbed main used as the driver to test asOf(), snapshot(), and the
+     * reports of retained versions
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        testAsOfVersionTime();
+        testAsOfBetweenVersions();
+        testRetentionLimit();
+        testVersionUnchangedByRemove();
+        testAsOfReports();
+    }
+}
@@ -0,0 +1,142 @@
+package eventorganizer;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+/**
+ * Generates the events and command streams used by the benchmarks
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+public final class BenchmarkData {
+    /** The day the benchmark clock is pinned to */
+    public static final LocalDate TODAY = LocalDate.of(2026, 10, 1);
+
+    private static final int SLOTS_PER_DAY =
+            Timeslot.values().length * Location.values().length;
+    private static final int BOOKABLE_DAYS = 180;
+    private static final int ORGANIZERS = 300;
+    private static final int[] DURATIONS = {30, 45, 60, 90, 120};
+    private static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Returns a clock pinned to TODAY so generated dates validate the
+     * same way on every run
+     * @return the pinned clock
+     */
+    public static EventClock clock() {
+        Instant noon = TODAY.atStartOfDay().plusHours(12)
+                .toInstant(ZoneOffset.UTC);
+        return new EventClock(Clock.fixed(noon, ZoneOffset.UTC));
+    }
+
+    /**
+     * Creates the i-th of a sequence of distinct events, filling every
+     * timeslot and location of a day before moving to the next day
+     * @param i the position in the sequence
+     * @return the event
+     */
+    public static Event event(int i) {
+        int slot = i % SLOTS_PER_DAY;
+        LocalDate day = TODAY.plusDays(1 + i / SLOTS_PER_DAY);
+        Date date = new Date(day.getYear(), day.getMonthValue(),
+                day.getDayOfMonth());
+        Timeslot timeslot = Timeslot.values()[slot / Location.values().length];
+        Location location = Location.values()[slot % Location.values().length];
+        Department department =
+                Department.values()[i % Department.values().length];
+        Contact contact = new Contact(department,
+                "organizer" + (i % ORGANIZERS) + "@rutgers.edu");
+        return new Event(date, timeslot, location, contact,
+                DURATIONS[i % DURATIONS.length]);
+    }
+
+    /**
+     * Creates the first n events of the sequence returned by event(i)
+     * @param n the number of events
+     * @return the events
+     */
+    public static Event[] events(int n) {
+        Event[] events = new Event[n];
+        for (int i = 0; i < n; ++i) {
+            events[i] = event(i);
+        }
+        return events;
+    }
+
+    /**
+     * Creates a calendar holding the first n events of the sequence
+     * @param n the number of events
+     * @return the calendar
+     */
+    public static EventCalendar calendar(int n) {
+        EventCalendar calendar = new EventCalendar(n);
+        for (int i = 0; i < n; ++i) {
+            calendar.add(event(i));
+        }
+        return calendar;
+    }
+
+    /**
+     * Generates a command stream of mostly A and R commands for dates
+     * within six months of TODAY, with a few invalid lines and periodic
+     * prints, ending with Q
+     * @param n the number of commands
+     * @return the command stream as bytes
+     */
+    public static byte[] commands(int n) {
+        Random random = new Random(SEED);
+        String[] prints = {"P", "PE", "PC", "PD"};
+        StringBuilder sb = new StringBuilder(n * 48);
+        for (int i = 0; i < n; ++i) {
+            int kind = random.nextInt(100);
+            if (kind == 0) {
+                sb.append(prints[random.nextInt(prints.length)]).append('\n');
+                continue;
+            }
+            if (kind < 5) {
+                sb.append("A 2/30/2027 noon XYZ cs someone@gmail.com 10\n");
+                continue;
+            }
+            int slot = random.nextInt(SLOTS_PER_DAY);
+            LocalDate day = TODAY.plusDays(1 + random.nextInt(BOOKABLE_DAYS));
+            Timeslot timeslot =
+                    Timeslot.values()[slot / Location.values().length];
+            Location location =
+                    Location.values()[slot % Location.values().length];
+            sb.append(kind < 70 ? "A " : "R ");
+            sb.append(day.getMonthValue()).append('/')
+                    .append(day.getDayOfMonth()).append('/')
+                    .append(day.getYear()).append(' ');
+            sb.append(timeslot.name().toLowerCase()).append(' ');
+            sb.append(location.name());
+            if (kind < 70) {
+                Department department = Department.values()[
+                        random.nextInt(Department.values().length)];
+                sb.append(' ').append(department.name().toLowerCase());
+                sb.append(" organizer").append(random.nextInt(ORGANIZERS))
+                        .append("@rutgers.edu ");
+                sb.append(DURATIONS[random.nextInt(DURATIONS.length)]);
+            }
+            sb.append('\n');
+        }
+        sb.append("Q\n");
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns a stream that discards everything written to it
+     * @return the null stream
+     */
+    public static PrintStream nullPrintStream() {
+        return new PrintStream(OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,103 @@
+package eventorganizer;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks ColumnarEventCalendar on the same operations as
+ * EventCalendarBenchmark and ReportBenchmark, for comparison
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColumnarEventCalendarBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private Event[] events; // the events in the calendar
+    private Event absent; // an event that is not in the calendar
+    private ColumnarEventCalendar calendar;
+    private ReportWriter out;
+    private int next; // index of the next event to probe
+
+    /**
+     * Fills the calendar with size events
+     */
+    @Setup
+    public void setUp() {
+        events = BenchmarkData.events(size);
+        absent = BenchmarkData.event(size);
+        calendar = new ColumnarEventCalendar(size);
+        for (Event event: events) {
+            calendar.add(event);
+        }
+        out = new ReportWriter(Writer.nullWriter());
+    }
+
+    /**
+     * Adds a new event and removes it again, keeping the size constant
+     * @return true if both succeeded
+     */
+    @Benchmark
+    public boolean addThenRemove() {
+        return calendar.add(absent) & calendar.remove(absent);
+    }
+
+    /**
+     * Looks up an event that is in the calendar
+     * @return true
+     */
+    @Benchmark
+    public boolean containsHit() {
+        Event event = events[next];
+        next = (next + 1 == size) ? 0 : next + 1;
+        return calendar.contains(event);
+    }
+
+    /**
+     * Loads size events into an empty, unsized calendar
+     * @return the loaded calendar
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ColumnarEventCalendar load() {
+        ColumnarEventCalendar loaded = new ColumnarEventCalendar();
+        for (Event event: events) {
+            loaded.add(event);
+        }
+        return loaded;
+    }
+
+    /**
+     * Writes the calendar ordered by date and timeslot
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void printByDate() {
+        calendar.printByDate(out);
+    }
+
+    /**
+     * Writes the calendar ordered by department
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void printByDepartment() {
+        calendar.printByDepartment(out);
+    }
+}
@@ -0,0 +1,89 @@
+package eventorganizer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks bookings from several threads, each thread cycling through
+ * its own events so threads only share a stripe when they share a room
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(6)
+@State(Scope.Benchmark)
+public class ConcurrentEventCalendarBenchmark {
+    private static final int EVENTS_PER_THREAD = 512;
+
+    private ConcurrentEventCalendar calendar;
+    private final AtomicInteger threads = new AtomicInteger();
+
+    /**
+     * Creates the shared, empty calendar
+     */
+    @Setup
+    public void setUp() {
+        calendar = new ConcurrentEventCalendar();
+    }
+
+    /**
+     * The events one benchmark thread books and cancels
+     */
+    @State(Scope.Thread)
+    public static class Bookings {
+        private Event[] events;
+        private int next;
+
+        /**
+         * Gives each thread a disjoint block of events
+         * @param shared the benchmark state
+         */
+        @Setup
+        public void setUp(ConcurrentEventCalendarBenchmark shared) {
+            int thread = shared.threads.getAndIncrement();
+            events = new Event[EVENTS_PER_THREAD];
+            for (int i = 0; i < EVENTS_PER_THREAD; ++i) {
+                events[i] = BenchmarkData.event(
+                        thread * EVENTS_PER_THREAD + i);
+            }
+        }
+    }
+
+    /**
+     * Books an event and cancels it again
+     * @param bookings this thread's events
+     * @return true if both succeeded
+     */
+    @Benchmark
+    public boolean addThenRemove(Bookings bookings) {
+        Event event = bookings.events[bookings.next];
+        bookings.next = (bookings.next + 1) % EVENTS_PER_THREAD;
+        return calendar.add(event) & calendar.remove(event);
+    }
+
+    /**
+     * Checks for an event without locking
+     * @param bookings this thread's events
+     * @return the result of the check
+     */
+    @Benchmark
+    public boolean contains(Bookings bookings) {
+        Event event = bookings.events[bookings.next];
+        bookings.next = (bookings.next + 1) % EVENTS_PER_THREAD;
+        return calendar.contains(event);
+    }
+}
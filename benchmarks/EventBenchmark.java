@@ -0,0 +1,87 @@
+package eventorganizer;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks formatting a single event and validating a single date
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventBenchmark {
+    private Event event;
+    private Date date;
+    private EventClock clock;
+    private StringBuilder sb;
+
+    /**
+     * Creates the event, date, and clock under test
+     */
+    @Setup
+    public void setUp() {
+        event = BenchmarkData.event(7);
+        date = new Date(2026, 12, 15);
+        clock = new EventClock();
+        sb = new StringBuilder();
+    }
+
+    /**
+     * Formats the event into a new String
+     * @return the formatted event
+     */
+    @Benchmark
+    public String eventToString() {
+        return event.toString();
+    }
+
+    /**
+     * Formats the event into a reused builder
+     * @return the length of the formatted event
+     */
+    @Benchmark
+    public int eventAppendTo() {
+        sb.setLength(0);
+        return event.appendTo(sb).length();
+    }
+
+    /**
+     * Checks that the date is a valid calendar date
+     * @return true
+     */
+    @Benchmark
+    public boolean dateIsValid() {
+        return date.isValid();
+    }
+
+    /**
+     * Checks that the date is after today
+     * @return the result of the check
+     */
+    @Benchmark
+    public boolean dateIsFutureDate() {
+        return date.isFutureDate(clock);
+    }
+
+    /**
+     * Checks that the date is within six months of today
+     * @return the result of the check
+     */
+    @Benchmark
+    public boolean dateIsWithinSixMonths() {
+        return date.isWithinSixMonths(clock);
+    }
+}
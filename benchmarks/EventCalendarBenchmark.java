@@ -0,0 +1,117 @@
+package eventorganizer;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks add, contains, and remove on a calendar of a given size
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventCalendarBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    private Event[] events; // the events in the calendar
+    private Event absent; // an event that is not in the calendar
+    private EventCalendar calendar;
+    private int next; // index of the next event to probe
+
+    /**
+     * Fills the calendar with size events
+     */
+    @Setup
+    public void setUp() {
+        events = BenchmarkData.events(size);
+        absent = BenchmarkData.event(size);
+        calendar = new EventCalendar(size);
+        for (Event event: events) {
+            calendar.add(event);
+        }
+    }
+
+    /**
+     * Returns the next event to probe, cycling through the calendar
+     * @return an event in the calendar
+     */
+    private Event nextEvent() {
+        Event event = events[next];
+        next = (next + 1 == size) ? 0 : next + 1;
+        return event;
+    }
+
+    /**
+     * Adds a new event and removes it again, keeping the size constant
+     * @return true if both succeeded
+     */
+    @Benchmark
+    public boolean addThenRemove() {
+        return calendar.add(absent) & calendar.remove(absent);
+    }
+
+    /**
+     * Adds an event that is already in the calendar
+     * @return false, the duplicate is rejected
+     */
+    @Benchmark
+    public boolean addDuplicate() {
+        return calendar.add(nextEvent());
+    }
+
+    /**
+     * Looks up an event that is in the calendar
+     * @return true
+     */
+    @Benchmark
+    public boolean containsHit() {
+        return calendar.contains(nextEvent());
+    }
+
+    /**
+     * Looks up an event that is not in the calendar
+     * @return false
+     */
+    @Benchmark
+    public boolean containsMiss() {
+        return calendar.contains(absent);
+    }
+
+    /**
+     * Removes an event and adds it back at the end of the calendar
+     * @return true if both succeeded
+     */
+    @Benchmark
+    public boolean removeThenAdd() {
+        Event event = nextEvent();
+        return calendar.remove(event) & calendar.add(event);
+    }
+
+    /**
+     * Loads size events into an empty, unsized calendar
+     * @return the loaded calendar
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public EventCalendar load() {
+        EventCalendar loaded = new EventCalendar();
+        for (Event event: events) {
+            loaded.add(event);
+        }
+        return loaded;
+    }
+}
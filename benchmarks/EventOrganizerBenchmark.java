@@ -0,0 +1,66 @@
+package eventorganizer;
+
+import java.io.ByteArrayInputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks EventOrganizer.run end to end over a generated command
+ * stream, with console output discarded
+ * The calendar is bounded by the six-month window (about 3,300 distinct
+ * bookings), so large streams are dominated by duplicates and removals
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventOrganizerBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int commands;
+
+    private byte[] input; // the generated command stream
+    private EventClock clock; // pinned so the stream always validates
+    private PrintStream console; // System.out while the benchmark runs
+
+    /**
+     * Generates the command stream and silences the console
+     */
+    @Setup
+    public void setUp() {
+        input = BenchmarkData.commands(commands);
+        clock = BenchmarkData.clock();
+        console = System.out;
+        System.setOut(BenchmarkData.nullPrintStream());
+    }
+
+    /**
+     * Restores the console
+     */
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    /**
+     * Runs a fresh organizer over the whole command stream
+     */
+    @Benchmark
+    public void run() {
+        new EventOrganizer(clock).run(new ByteArrayInputStream(input));
+    }
+}
@@ -0,0 +1,83 @@
+package eventorganizer;
+
+import java.io.Writer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks each calendar report written to a discarding sink, so the
+ * numbers cover ordering and formatting but not the console, with
+ * events formatted on the calling thread or on the common pool
+ * @author Jeeva Ramasamy, Parth Patel
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReportBenchmark {
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private EventCalendar calendar;
+    private ReportWriter out;
+
+    /**
+     * Fills the calendar with size events
+     */
+    @Setup
+    public void setUp() {
+        calendar = BenchmarkData.calendar(size);
+        out = new ReportWriter(Writer.nullWriter());
+        if (parallel) {
+            out.formatInParallel(ForkJoinPool.commonPool());
+        }
+    }
+
+    /**
+     * Writes the calendar in insertion order
+     */
+    @Benchmark
+    public void print() {
+        calendar.print(out);
+    }
+
+    /**
+     * Writes the calendar ordered by date and timeslot
+     */
+    @Benchmark
+    public void printByDate() {
+        calendar.printByDate(out);
+    }
+
+    /**
+     * Writes the calendar ordered by campus and building
+     */
+    @Benchmark
+    public void printByCampus() {
+        calendar.printByCampus(out);
+    }
+
+    /**
+     * Writes the calendar ordered by department
+     */
+    @Benchmark
+    public void printByDepartment() {
+        calendar.printByDepartment(out);
+    }
+}